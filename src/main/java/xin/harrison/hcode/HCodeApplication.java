@@ -2,14 +2,28 @@ package xin.harrison.hcode;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import xin.harrison.hcode.cli.BatchCommand;
+import xin.harrison.hcode.config.AwtRuntimeHints;
+
+import java.util.Arrays;
 
 /**
  * @author Harrison
  * @version 1.0.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(AwtRuntimeHints.class)
 public class HCodeApplication {
     public static void main(String[] args) {
+        // 只在服务端渲染图片，不需要显示设备
+        System.setProperty("java.awt.headless", "true");
+        // 批量模式只调用生成器，不启动 Spring 和 Tomcat
+        if (args.length > 0 && BatchCommand.NAME.equals(args[0])) {
+            System.exit(BatchCommand.run(Arrays.copyOfRange(args, 1, args.length), System.in, System.err));
+        }
         SpringApplication.run(HCodeApplication.class, args);
     }
 }
@@ -0,0 +1,522 @@
+package xin.harrison.hcode.cli;
+
+import xin.harrison.hcode.config.RenderProperties;
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.QrCode;
+import xin.harrison.hcode.enums.FormatEnum;
+import xin.harrison.hcode.render.EscPosEncoder;
+import xin.harrison.hcode.render.ImageEncoders;
+import xin.harrison.hcode.render.PdfLabelWriter;
+import xin.harrison.hcode.render.RasterPool;
+import xin.harrison.hcode.render.ZplEncoder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 命令行批量生成
+ * <p>
+ * 不启动 Spring 和内嵌 Tomcat，直接调用生成器：从标准输入或文件逐行读取内容，每个非空行生成一个条码或二维码，
+ * 按处理器核数并行渲染，写入输出目录或 zip 归档，进度和汇总输出到标准错误。
+ * 输出文件以输入行号命名，manifest.tsv 记录文件名与内容的对应关系；pdf 格式把全部内容排版到一个 labels.pdf。
+ * 输入逐行读取、边读边渲染，清单边渲染边写出，内存占用与输入行数无关。
+ * <pre>
+ * java -jar HCode.jar batch --output=out [--input=codes.txt] [--type=qrcode|barcode]
+ *      [--format=png|gif|bmp|tiff|zpl|escpos|pdf] [--size=300] [--ec=M] [--scale=2] [--archive] [--threads=N]
+ * </pre>
+ * 退出码：0 全部成功，1 部分内容失败，2 参数或读写错误。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class BatchCommand {
+
+    /**
+     * 子命令名称，作为第一个启动参数
+     */
+    public static final String NAME = "batch";
+
+    private static final String USAGE = """
+            用法: batch --output=<目录> [选项]
+              --input=<文件>      输入文件，每行一个内容，缺省或 - 时读取标准输入
+              --type=<类型>       qrcode（默认）或 barcode
+              --format=<格式>     png（默认）、gif、bmp、tiff、zpl、escpos、pdf
+              --size=<像素>       二维码边长，默认 300
+              --ec=<级别>         二维码纠错级别 L/M/Q/H，默认 M
+              --scale=<倍数>      条码放大倍数，默认 2
+              --archive           写入 <目录>/hcode-batch.zip 而不是单独的文件
+              --threads=<线程数>  渲染线程数，默认处理器核数""";
+
+    private static final String MANIFEST = "manifest.tsv";
+
+    private final Options options;
+    private final PrintStream err;
+    private final RenderProperties limits = new RenderProperties();
+    private final RasterPool rasterPool = new RasterPool(limits);
+
+    private BatchCommand(Options options, PrintStream err) {
+        this.options = options;
+        this.err = err;
+    }
+
+    /**
+     * 执行批量生成
+     *
+     * @param args  子命令之后的参数
+     * @param stdin 标准输入
+     * @param err   进度和错误输出
+     * @return 退出码
+     */
+    public static int run(String[] args, InputStream stdin, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+        // 关闭 ImageIO 的磁盘缓存，编码结果直接写入内存
+        ImageIO.setUseCache(false);
+        try {
+            // 输入为文件时先数一遍行数用于进度百分比，标准输入只能读一次，只输出已完成个数
+            int total = options.input != null ? countItems(options.input) : 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    options.input != null ? Files.newInputStream(options.input) : stdin, StandardCharsets.UTF_8))) {
+                return new BatchCommand(options, err).execute(new ItemReader(reader), total);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            err.println("读写失败: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private int execute(ItemReader items, int total) throws IOException {
+        Files.createDirectories(options.output);
+        long start = System.nanoTime();
+        Progress progress = new Progress(total);
+        if (options.pdf) {
+            writePdf(items, progress);
+        } else {
+            try (Sink sink = options.archive ? new ZipSink(options.output.resolve("hcode-batch.zip"))
+                    : new DirectorySink(options.output)) {
+                render(items, sink, progress);
+            }
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        err.printf("完成 %d/%d，失败 %d，耗时 %d ms（%d 个/秒），输出 %.1f MB -> %s%n",
+                progress.done - progress.failures, progress.done, progress.failures, millis,
+                progress.done * 1000L / millis, progress.bytes / 1024.0 / 1024.0, options.output.toAbsolutePath());
+        return progress.failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * 并行渲染，按输入顺序写出；边读边提交，在途任务数有上限，清单逐行写出，内存占用与输入行数无关
+     */
+    private void render(ItemReader items, Sink sink, Progress progress) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads, runnable -> {
+            Thread thread = new Thread(runnable, "hcode-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+        try {
+            Item item;
+            while ((item = items.next()) != null) {
+                while (inFlight.size() >= options.threads * 4) {
+                    complete(inFlight.removeFirst(), sink, progress);
+                }
+                String content = item.content;
+                inFlight.add(new Pending(item, executor.submit(() -> encode(content))));
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.removeFirst(), sink, progress);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void complete(Pending pending, Sink sink, Progress progress) throws IOException {
+        Item item = pending.item;
+        byte[] data;
+        try {
+            data = pending.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("渲染被中断", e);
+        } catch (ExecutionException e) {
+            progress.fail(item, e.getCause());
+            return;
+        }
+        String name = String.format("%06d.%s", item.line, options.extension);
+        sink.write(name, data);
+        sink.manifest(name, item.content);
+        progress.success(data.length);
+    }
+
+    private byte[] encode(String content) {
+        if (content.length() > limits.getMaxContentLength()) {
+            throw new IllegalArgumentException("content 长度不能超过 " + limits.getMaxContentLength());
+        }
+        // 校验二维码容量，打印机指令本身不做检查
+        int moduleCount = options.barcode ? 0 : QrCode.moduleCount(QrCode.version(content, options.ecLevel));
+        if (options.printer != null) {
+            if (options.barcode) {
+                return options.printer == FormatEnum.Printer.ZPL
+                        ? ZplEncoder.barcode(content) : EscPosEncoder.barcode(content);
+            }
+            return options.printer == FormatEnum.Printer.ZPL
+                    ? ZplEncoder.qrCode(content, options.ecLevel) : EscPosEncoder.qrCode(content, options.ecLevel);
+        }
+
+        Dimension size;
+        if (options.barcode) {
+            size = Barcode.imageSize(content, options.scale);
+        } else {
+            if (options.size < moduleCount) {
+                throw new IllegalArgumentException("图片尺寸不能小于二维码模块数: " + moduleCount);
+            }
+            size = new Dimension(options.size, options.size);
+        }
+        if (size.width > limits.getMaxWidth() || size.height > limits.getMaxHeight()) {
+            throw new IllegalArgumentException("图片尺寸不能超过 " + limits.getMaxWidth() + "x" + limits.getMaxHeight());
+        }
+        try (RasterPool.Lease lease = rasterPool.borrow(size.width, size.height, BufferedImage.TYPE_INT_RGB)) {
+            if (options.barcode) {
+                Barcode.render(content, options.scale, lease.image());
+            } else {
+                QrCode.render(content, options.ecLevel, lease.image());
+            }
+            return ImageEncoders.encode(options.image, lease.image());
+        }
+    }
+
+    /**
+     * 全部内容排版到一个 PDF，页面逐页写出，无法并行
+     */
+    private void writePdf(ItemReader items, Progress progress) throws IOException {
+        Path file = options.output.resolve("labels.pdf");
+        try (OutputStream os = Files.newOutputStream(file);
+             PdfLabelWriter writer = new PdfLabelWriter(os, 3, 8)) {
+            Item item;
+            while ((item = items.next()) != null) {
+                try {
+                    if (item.content.length() > limits.getMaxContentLength()) {
+                        throw new IllegalArgumentException("content 长度不能超过 " + limits.getMaxContentLength());
+                    }
+                    if (options.barcode) {
+                        writer.addBarcode(item.content);
+                    } else {
+                        QrCode.version(item.content, QrCode.ErrorCorrectionLevel.L);
+                        writer.addQrCode(item.content);
+                    }
+                    progress.success(0);
+                } catch (IllegalArgumentException e) {
+                    progress.fail(item, e);
+                }
+            }
+        }
+        progress.bytes = Files.size(file);
+    }
+
+    private static int countItems(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            int count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 逐行读取非空行，记录行号
+     */
+    private static final class ItemReader {
+
+        private final BufferedReader reader;
+        private int number;
+
+        ItemReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        Item next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (!line.isBlank()) {
+                    return new Item(number, line);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 进度统计，总数已知时每完成 10% 输出一次，否则每 {@value #UNKNOWN_TOTAL_STEP} 个输出一次；失败即时输出
+     */
+    private final class Progress {
+
+        private static final int UNKNOWN_TOTAL_STEP = 10000;
+
+        final int total;
+        int done;
+        int failures;
+        long bytes;
+        private int reported;
+
+        Progress(int total) {
+            this.total = total;
+        }
+
+        void success(long size) {
+            bytes += size;
+            advance();
+        }
+
+        void fail(Item item, Throwable cause) {
+            failures++;
+            err.println("第 " + item.line + " 行失败: " + cause.getMessage());
+            advance();
+        }
+
+        private void advance() {
+            done++;
+            if (total <= 0) {
+                if (done % UNKNOWN_TOTAL_STEP == 0) {
+                    err.printf("已完成 %d%n", done);
+                }
+                return;
+            }
+            int percent = (int) (done * 10L / total * 10);
+            if (percent > reported) {
+                reported = percent;
+                err.printf("已完成 %d/%d（%d%%）%n", done, total, percent);
+            }
+        }
+    }
+
+    private static final class Item {
+
+        final int line;
+        final String content;
+
+        Item(int line, String content) {
+            this.line = line;
+            this.content = content;
+        }
+    }
+
+    private static final class Pending {
+
+        final Item item;
+        final Future<byte[]> future;
+
+        Pending(Item item, Future<byte[]> future) {
+            this.item = item;
+            this.future = future;
+        }
+    }
+
+    /**
+     * 输出目标
+     */
+    private interface Sink extends Closeable {
+
+        void write(String name, byte[] data) throws IOException;
+
+        /**
+         * 追加一行清单
+         */
+        void manifest(String name, String content) throws IOException;
+    }
+
+    private static final class DirectorySink implements Sink {
+
+        private final Path directory;
+        private final BufferedWriter manifest;
+
+        DirectorySink(Path directory) throws IOException {
+            this.directory = directory;
+            this.manifest = Files.newBufferedWriter(directory.resolve(MANIFEST), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(String name, byte[] data) throws IOException {
+            Files.write(directory.resolve(name), data);
+        }
+
+        @Override
+        public void manifest(String name, String content) throws IOException {
+            manifest.append(name).append('\t').append(content).append('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            manifest.close();
+        }
+    }
+
+    /**
+     * zip 条目只能依次写出，清单先写到归档旁的临时文件，关闭时作为最后一个条目复制进去
+     */
+    private static final class ZipSink implements Sink {
+
+        private final ZipOutputStream zip;
+        private final Path manifestFile;
+        private final BufferedWriter manifest;
+
+        ZipSink(Path file) throws IOException {
+            this.zip = new ZipOutputStream(Files.newOutputStream(file));
+            // 图片本身已压缩，只求快
+            zip.setLevel(Deflater.BEST_SPEED);
+            this.manifestFile = file.resolveSibling(MANIFEST + ".tmp");
+            this.manifest = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(String name, byte[] data) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(data);
+            zip.closeEntry();
+        }
+
+        @Override
+        public void manifest(String name, String content) throws IOException {
+            manifest.append(name).append('\t').append(content).append('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (zip) {
+                manifest.close();
+                zip.putNextEntry(new ZipEntry(MANIFEST));
+                Files.copy(manifestFile, zip);
+                zip.closeEntry();
+            } finally {
+                Files.deleteIfExists(manifestFile);
+            }
+        }
+    }
+
+    /**
+     * 命令行参数
+     */
+    private static final class Options {
+
+        Path input;
+        Path output;
+        boolean barcode;
+        boolean archive;
+        boolean pdf;
+        FormatEnum.Image image;
+        FormatEnum.Printer printer;
+        String extension;
+        int size = 300;
+        int scale = 2;
+        QrCode.ErrorCorrectionLevel ecLevel = QrCode.ErrorCorrectionLevel.M;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("无法识别的参数: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "" : arg.substring(eq + 1));
+            }
+
+            Options options = new Options();
+            String output = values.remove("output");
+            if (output == null || output.isBlank()) {
+                throw new IllegalArgumentException("缺少 --output");
+            }
+            options.output = Path.of(output);
+            String input = values.remove("input");
+            options.input = input == null || input.isBlank() || "-".equals(input) ? null : Path.of(input);
+
+            String type = values.getOrDefault("type", "qrcode");
+            values.remove("type");
+            if (!"qrcode".equalsIgnoreCase(type) && !"barcode".equalsIgnoreCase(type)) {
+                throw new IllegalArgumentException("不支持的类型: " + type);
+            }
+            options.barcode = "barcode".equalsIgnoreCase(type);
+            options.archive = values.remove("archive") != null;
+
+            String format = values.getOrDefault("format", "png");
+            values.remove("format");
+            if ("pdf".equalsIgnoreCase(format)) {
+                if (options.archive) {
+                    throw new IllegalArgumentException("pdf 格式只输出一个文件，不能与 --archive 同时使用");
+                }
+                options.pdf = true;
+            } else {
+                options.printer = FormatEnum.Printer.of(format);
+                if (options.printer == null) {
+                    options.image = ImageEncoders.negotiate(format, null, true);
+                    options.extension = options.image.name().toLowerCase();
+                } else {
+                    options.extension = options.printer == FormatEnum.Printer.ZPL ? "zpl" : "bin";
+                }
+            }
+
+            String ec = values.remove("ec");
+            if (ec != null) {
+                options.ecLevel = QrCode.ErrorCorrectionLevel.of(ec);
+            }
+            options.size = intValue(values.remove("size"), options.size, "size");
+            options.scale = intValue(values.remove("scale"), options.scale, "scale");
+            options.threads = intValue(values.remove("threads"), options.threads, "threads");
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("无法识别的参数: --" + values.keySet().iterator().next());
+            }
+            return options;
+        }
+
+        private static int intValue(String value, int defaultValue, String name) {
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                int result = Integer.parseInt(value);
+                if (result < 1) {
+                    throw new NumberFormatException();
+                }
+                return result;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--" + name + " 须为正整数: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package xin.harrison.hcode.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * GraalVM native-image 所需的 AWT / ImageIO 运行时提示
+ * <p>
+ * headless AWT 通过反射加载字体管理器和图形环境实现，ImageIO 通过 ServiceLoader 注册插件，
+ * 这些类在静态分析中不可见，需要显式注册。JNI 配置随 JDK 版本变化，
+ * 应使用 native-image tracing agent 重新生成到 META-INF/native-image 下。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class AwtRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] REFLECTIVE_TYPES = {
+            "sun.awt.X11FontManager",
+            "sun.awt.X11GraphicsEnvironment",
+            "sun.java2d.HeadlessGraphicsEnvironment",
+            "sun.awt.HeadlessToolkit",
+            "sun.font.FontConfigManager",
+            "com.sun.imageio.plugins.png.PNGImageWriterSpi",
+            "com.sun.imageio.plugins.png.PNGImageReaderSpi"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        // 字体配置和颜色配置文件
+        hints.resources().registerPattern("sun/awt/resources/*");
+        hints.resources().registerPattern("sun/java2d/cmm/profiles/*");
+    }
+}
@@ -0,0 +1,67 @@
+package xin.harrison.hcode.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 渲染结果磁盘缓存配置
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@ConfigurationProperties(prefix = "hcode.cache")
+public class CacheProperties {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 段文件目录
+     */
+    private String directory = "cache";
+
+    /**
+     * 单个段文件大小，也是单条记录大小上限的两倍
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 磁盘占用上限
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public DataSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(DataSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,57 @@
+package xin.harrison.hcode.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 验证码令牌配置
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@ConfigurationProperties(prefix = "hcode.captcha")
+public class CaptchaProperties {
+
+    /**
+     * HMAC 密钥（Base64），第一个用于签发，全部用于校验；轮换时把新密钥放在最前面，旧密钥保留一个有效期后删除
+     */
+    private List<String> keys = new ArrayList<>();
+
+    /**
+     * 令牌有效期
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * 每个有效期内防重放过滤器可容纳的令牌数
+     */
+    private int replayCapacity = 100_000;
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getReplayCapacity() {
+        return replayCapacity;
+    }
+
+    public void setReplayCapacity(int replayCapacity) {
+        this.replayCapacity = replayCapacity;
+    }
+}
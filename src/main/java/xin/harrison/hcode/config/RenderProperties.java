@@ -0,0 +1,160 @@
+package xin.harrison.hcode.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 渲染限制配置
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@ConfigurationProperties(prefix = "hcode.render")
+public class RenderProperties {
+
+    /**
+     * 内容最大字符数
+     */
+    private int maxContentLength = 2048;
+
+    /**
+     * 结构化追加（/qrcode/structured）内容最大字节数（UTF-8），拆分为多个符号，不受 maxContentLength 限制
+     */
+    private int maxStructuredContentBytes = 8192;
+
+    /**
+     * 图片最大宽度（像素）
+     */
+    private int maxWidth = 4096;
+
+    /**
+     * 图片最大高度（像素）
+     */
+    private int maxHeight = 4096;
+
+    /**
+     * 最大放大倍数
+     */
+    private int maxScale = 40;
+
+    /**
+     * 流式输出（/poster）的最大边长（像素）
+     */
+    private int maxPosterSize = 30000;
+
+    /**
+     * /pdf 单次请求的最大标签数
+     */
+    private int maxPdfLabels = 500;
+
+    /**
+     * /pdf 每页最大行数和列数
+     */
+    private int maxPdfGrid = 20;
+
+    /**
+     * 同时渲染的位图内存总预算
+     */
+    private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+    /**
+     * 等待内存预算的最长时间，超时返回503
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * 位图缓冲池中空闲位图的总大小上限，0 表示不复用
+     */
+    private DataSize rasterPoolSize = DataSize.ofMegabytes(64);
+
+    public int getMaxContentLength() {
+        return maxContentLength;
+    }
+
+    public void setMaxContentLength(int maxContentLength) {
+        this.maxContentLength = maxContentLength;
+    }
+
+    public int getMaxStructuredContentBytes() {
+        return maxStructuredContentBytes;
+    }
+
+    public void setMaxStructuredContentBytes(int maxStructuredContentBytes) {
+        this.maxStructuredContentBytes = maxStructuredContentBytes;
+    }
+
+    public int getMaxWidth() {
+        return maxWidth;
+    }
+
+    public void setMaxWidth(int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    public void setMaxHeight(int maxHeight) {
+        this.maxHeight = maxHeight;
+    }
+
+    public int getMaxScale() {
+        return maxScale;
+    }
+
+    public void setMaxScale(int maxScale) {
+        this.maxScale = maxScale;
+    }
+
+    public int getMaxPosterSize() {
+        return maxPosterSize;
+    }
+
+    public void setMaxPosterSize(int maxPosterSize) {
+        this.maxPosterSize = maxPosterSize;
+    }
+
+    public int getMaxPdfLabels() {
+        return maxPdfLabels;
+    }
+
+    public void setMaxPdfLabels(int maxPdfLabels) {
+        this.maxPdfLabels = maxPdfLabels;
+    }
+
+    public int getMaxPdfGrid() {
+        return maxPdfGrid;
+    }
+
+    public void setMaxPdfGrid(int maxPdfGrid) {
+        this.maxPdfGrid = maxPdfGrid;
+    }
+
+    public DataSize getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public void setMemoryBudget(DataSize memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public DataSize getRasterPoolSize() {
+        return rasterPoolSize;
+    }
+
+    public void setRasterPoolSize(DataSize rasterPoolSize) {
+        this.rasterPoolSize = rasterPoolSize;
+    }
+}
@@ -0,0 +1,40 @@
+package xin.harrison.hcode.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 启动预热配置
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@ConfigurationProperties(prefix = "hcode.warmup")
+public class WarmUpProperties {
+
+    /**
+     * 是否在就绪前预热
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个生成器的预热次数
+     */
+    private int iterations = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+}
@@ -0,0 +1,156 @@
+package xin.harrison.hcode.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.Captcha;
+import xin.harrison.hcode.core.QrCode;
+import xin.harrison.hcode.enums.FormatEnum;
+import xin.harrison.hcode.render.EscPosEncoder;
+import xin.harrison.hcode.render.ImageEncoders;
+import xin.harrison.hcode.render.PdfLabelWriter;
+import xin.harrison.hcode.render.QrStyle;
+import xin.harrison.hcode.render.RasterPool;
+import xin.harrison.hcode.render.ScanlineImage;
+import xin.harrison.hcode.render.StreamingPngWriter;
+import xin.harrison.hcode.render.StreamingTiffWriter;
+import xin.harrison.hcode.render.StyledQrRenderer;
+import xin.harrison.hcode.render.ZplEncoder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 启动预热
+ * <p>
+ * ApplicationRunner 在就绪状态发布之前执行，预热完成后才对外报告就绪：
+ * 初始化 headless 图形环境、加载用到的字体、查找 PNG 编码器，
+ * 再按真实请求的路径跑一轮合成请求：从位图缓冲池借出位图、渲染到位图上、经 {@link ImageEncoders}
+ * 轮流编码为每种图片格式，并流式输出小尺寸海报，使首批真实请求直接命中已编译的热点代码。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    // 预热带样式渲染的代码路径，顺带缓存 300px 常用尺寸的精灵图
+    private static final QrStyle WARM_UP_STYLE = QrStyle.of("rounded", "rounded", null, null, null);
+
+    // 条码和二维码可用的图片格式，验证码另外允许有损格式
+    private static final List<FormatEnum.Image> LOSSLESS = Arrays.stream(FormatEnum.Image.values())
+            .filter(image -> !image.isLossy())
+            .toList();
+
+    // 海报预热尺寸，足以让流式编码跑满若干条带
+    private static final int POSTER_SIZE = 1000;
+
+    private final WarmUpProperties properties;
+    private final RasterPool rasterPool;
+
+    public WarmUpRunner(WarmUpProperties properties, RasterPool rasterPool) {
+        this.properties = properties;
+        this.rasterPool = rasterPool;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        initToolkit();
+        long toolkit = System.nanoTime();
+        warmUpGenerators(properties.getIterations());
+        long end = System.nanoTime();
+
+        log.info("预热完成：图形环境/字体/编码器 {} ms，生成器 {} 次 {} ms，JVM 启动至可快速响应 {} ms",
+                (toolkit - start) / 1_000_000, properties.getIterations(), (end - toolkit) / 1_000_000,
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * 初始化图形环境、字体和 PNG 编码器
+     */
+    static void initToolkit() {
+        // 关闭 ImageIO 的磁盘缓存，编码结果直接写入内存或响应流
+        ImageIO.setUseCache(false);
+        GraphicsEnvironment.getLocalGraphicsEnvironment();
+
+        // 加载并排版生成器用到的所有字体，触发字体文件解析和字形缓存
+        FontRenderContext frc = new FontRenderContext(null, true, true);
+        for (FormatEnum.Font font : FormatEnum.Font.values()) {
+            new Font(font.getName(), Font.BOLD, 10).getStringBounds("0123456789", frc);
+        }
+        new Font(Font.SERIF, Font.BOLD, 24).getStringBounds("ABCabc", frc);
+
+        // ImageIO 插件注册表在首次查找时扫描
+        ImageIO.getImageWritersByFormatName(FormatEnum.Image.PNG.name()).next();
+    }
+
+    /**
+     * 用合成内容按真实请求的路径调用每个生成器和编码器
+     */
+    void warmUpGenerators(int iterations) {
+        OutputStream sink = OutputStream.nullOutputStream();
+        Dimension captchaSize = Captcha.imageSize();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                String content = "https://example.com/warmup/" + i;
+                String ean13 = String.format("690%010d", i);
+                FormatEnum.Image format = LOSSLESS.get(i % LOSSLESS.size());
+
+                try (RasterPool.Lease lease = rasterPool.borrow(300, 300, BufferedImage.TYPE_INT_RGB)) {
+                    QrCode.render(content, QrCode.ErrorCorrectionLevel.M, lease.image());
+                    ImageEncoders.encode(format, lease.image());
+                    StyledQrRenderer.render(QrCode.encode(content), WARM_UP_STYLE, lease.image());
+                    ImageEncoders.encode(format, lease.image());
+                }
+                for (String barcode : new String[]{ean13, "WARMUP-" + i}) {
+                    Dimension size = Barcode.imageSize(barcode, 1);
+                    try (RasterPool.Lease lease = rasterPool.borrow(size.width, size.height,
+                            BufferedImage.TYPE_INT_RGB)) {
+                        Barcode.render(barcode, 1, lease.image());
+                        ImageEncoders.encode(format, lease.image());
+                    }
+                }
+                try (RasterPool.Lease lease = rasterPool.borrow(captchaSize.width, captchaSize.height,
+                        BufferedImage.TYPE_INT_RGB)) {
+                    Captcha.render(Captcha.randomText(4), lease.image());
+                    ImageEncoders.encode(FormatEnum.Image.values()[i % FormatEnum.Image.values().length],
+                            lease.image());
+                }
+                ZplEncoder.qrCode(content);
+                ZplEncoder.barcode(ean13);
+                EscPosEncoder.qrCode(content);
+                EscPosEncoder.barcode(ean13);
+                if (i % 10 == 0) {
+                    StreamingPngWriter.write(ScanlineImage.qrCode(QrCode.encode(content), POSTER_SIZE), sink);
+                    StreamingTiffWriter.write(ScanlineImage.barcode(Barcode.encode(ean13), POSTER_SIZE,
+                            POSTER_SIZE / 3), sink);
+                }
+            }
+            try (PdfLabelWriter writer = new PdfLabelWriter(sink, 3, 8)) {
+                for (int i = 0; i < Math.min(iterations, 48); i++) {
+                    writer.addQrCode("https://example.com/warmup/" + i);
+                    writer.addBarcode(String.format("690%010d", i));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("预热失败", e);
+        }
+    }
+}
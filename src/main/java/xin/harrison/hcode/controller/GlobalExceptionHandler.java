@@ -0,0 +1,42 @@
+package xin.harrison.hcode.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import xin.harrison.hcode.render.RenderBudget;
+import xin.harrison.hcode.utils.CacheUtil;
+import xin.harrison.hcode.utils.Result;
+
+/**
+ * 全局异常处理
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * 参数校验失败
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Result<Void> handleIllegalArgument(IllegalArgumentException e, HttpServletResponse response) {
+        CacheUtil.noStore(response);
+        return Result.fail(e.getMessage(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    /**
+     * 渲染内存预算不足
+     */
+    @ExceptionHandler(RenderBudget.ExhaustedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Result<Void> handleBudgetExhausted(RenderBudget.ExhaustedException e, HttpServletResponse response) {
+        CacheUtil.noStore(response);
+        response.setHeader("Retry-After", "1");
+        return Result.fail(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+}
@@ -1,16 +1,45 @@
 package xin.harrison.hcode.controller;
 
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import xin.harrison.hcode.config.RenderProperties;
 import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.BitMatrix;
 import xin.harrison.hcode.core.Captcha;
 import xin.harrison.hcode.core.QrCode;
+import xin.harrison.hcode.core.StructuredAppend;
+import xin.harrison.hcode.enums.FormatEnum;
+import xin.harrison.hcode.render.EncodeExecutor;
+import xin.harrison.hcode.render.EscPosEncoder;
+import xin.harrison.hcode.render.ImageEncoders;
+import xin.harrison.hcode.render.PdfLabelWriter;
+import xin.harrison.hcode.render.QrStyle;
+import xin.harrison.hcode.render.RasterPool;
+import xin.harrison.hcode.render.RawSymbol;
+import xin.harrison.hcode.render.RenderBudget;
+import xin.harrison.hcode.render.ScanlineImage;
+import xin.harrison.hcode.render.StreamingPngWriter;
+import xin.harrison.hcode.render.StreamingTiffWriter;
+import xin.harrison.hcode.render.StyledQrRenderer;
+import xin.harrison.hcode.render.ZplEncoder;
+import xin.harrison.hcode.service.CaptchaTokenService;
+import xin.harrison.hcode.service.RenderCacheService;
+import xin.harrison.hcode.utils.CacheUtil;
+import xin.harrison.hcode.utils.ImageUtil;
+import xin.harrison.hcode.utils.Result;
 
-import javax.imageio.ImageIO;
+import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Harrison
@@ -20,46 +49,473 @@ import java.io.OutputStream;
 @RequestMapping("/")
 public class TestController {
 
+    /**
+     * 验证码令牌响应头，校验时原样提交
+     */
+    public static final String CAPTCHA_TOKEN_HEADER = "X-Captcha-Token";
+
+    private final RenderProperties properties;
+    private final RenderBudget budget;
+    private final CaptchaTokenService captchaTokenService;
+    private final RenderCacheService renderCache;
+    private final RasterPool rasterPool;
+    private final EncodeExecutor encodeExecutor;
+
+    public TestController(RenderProperties properties, RenderBudget budget, CaptchaTokenService captchaTokenService,
+                          RenderCacheService renderCache, RasterPool rasterPool, EncodeExecutor encodeExecutor) {
+        this.properties = properties;
+        this.budget = budget;
+        this.captchaTokenService = captchaTokenService;
+        this.renderCache = renderCache;
+        this.rasterPool = rasterPool;
+        this.encodeExecutor = encodeExecutor;
+    }
+
     @RequestMapping("barcode")
-    public void index(HttpServletResponse response, String content) {
+    public void index(WebRequest request, HttpServletResponse response, String content, Integer scale, String format) {
         // 如果没有指定内容，使用图片中的条形码号码作为默认值
         String barcodeContent = (content != null && !content.trim().isEmpty()) ? content : "6190102814526";
-        BufferedImage generate = Barcode.generate(barcodeContent);
-        // 设置响应类型
-        response.setContentType("image/png");
+        checkContent(barcodeContent);
+        int barcodeScale = checkScale(scale);
+        FormatEnum.Printer printer = FormatEnum.Printer.of(format);
+        FormatEnum.Image image = printer == null ? negotiateImage(request, response, format, true) : null;
+        Dimension size = Barcode.imageSize(barcodeContent, barcodeScale);
+        checkSize(size.width, size.height);
+
+        // 输出只由参数决定，命中 If-None-Match 时直接返回304，不做渲染
+        CacheUtil.immutable(response);
+        String etag = CacheUtil.etag("barcode", barcodeContent, String.valueOf(barcodeScale),
+                formatName(printer, image));
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        if (printer != null) {
+            writePrinter(response, printer, printer == FormatEnum.Printer.ZPL
+                    ? ZplEncoder.barcode(barcodeContent) : EscPosEncoder.barcode(barcodeContent));
+            return;
+        }
+
+        writeCachedImage(response, etag, image, size.width, size.height,
+                target -> Barcode.render(barcodeContent, barcodeScale, target));
+    }
+
+    @RequestMapping("qrcode")
+    public void qrcode(WebRequest request, HttpServletResponse response, String content, Integer size,
+                       Integer width, Integer height, Integer scale, String ec, String format,
+                       String style, String finder, String color, String finderColor, String background) {
+        String qrContent = (content != null && !content.isEmpty()) ? content : "https://github.com/Harrison-Huang";
+        checkContent(qrContent);
+        QrCode.ErrorCorrectionLevel ecLevel = QrCode.ErrorCorrectionLevel.of(ec);
+        FormatEnum.Printer printer = FormatEnum.Printer.of(format);
+        FormatEnum.Image image = printer == null ? negotiateImage(request, response, format, true) : null;
+        // 样式只作用于图片输出，打印机指令按设备自身的方块渲染
+        QrStyle qrStyle = printer == null ? QrStyle.of(style, finder, color, finderColor, background) : QrStyle.PLAIN;
+
+        // 指定放大倍数时按模块数计算尺寸，否则使用 width/height/size，默认300
+        int moduleCount = QrCode.moduleCount(QrCode.version(qrContent, ecLevel));
+        int imageWidth;
+        int imageHeight;
+        if (scale != null) {
+            imageWidth = moduleCount * checkScale(scale);
+            imageHeight = imageWidth;
+        } else {
+            imageWidth = width != null ? width : (size != null ? size : 300);
+            imageHeight = height != null ? height : (size != null ? size : 300);
+        }
+        checkSize(imageWidth, imageHeight);
+        if (Math.min(imageWidth, imageHeight) < moduleCount) {
+            throw new IllegalArgumentException("图片尺寸不能小于二维码模块数: " + moduleCount);
+        }
+
+        CacheUtil.immutable(response);
+        String etag = CacheUtil.etag("qrcode", qrContent, ecLevel.name(), imageWidth + "x" + imageHeight,
+                formatName(printer, image), qrStyle.key());
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        if (printer != null) {
+            writePrinter(response, printer, printer == FormatEnum.Printer.ZPL
+                    ? ZplEncoder.qrCode(qrContent, ecLevel) : EscPosEncoder.qrCode(qrContent, ecLevel));
+            return;
+        }
+
+        long workingSet = qrStyle.isPlain() ? 0
+                : StyledQrRenderer.workingSetBytes(moduleCount, imageWidth, imageHeight);
+        writeCachedImage(response, etag, image, imageWidth, imageHeight, workingSet, target -> {
+            if (qrStyle.isPlain()) {
+                QrCode.render(qrContent, ecLevel, target);
+            } else {
+                StyledQrRenderer.render(QrCode.encode(qrContent, ecLevel), qrStyle, target);
+            }
+        });
+    }
+
+    /**
+     * 结构化追加：内容拆分为最多 16 个不超过指定版本（默认 10）的二维码，各符号在编码线程池中并行编码
+     * <p>
+     * layout=tile（默认）时按 columns 列（默认接近正方形）平铺为一张图片，格式协商同 /qrcode；
+     * layout=set 时返回每个符号的 Base64 PNG 列表。scale 为每个模块的像素数，默认 4。
+     * 内容长度不受 max-content-length 约束，改由 max-structured-content-bytes 限制 UTF-8 字节数。
+     */
+    @RequestMapping("qrcode/structured")
+    @SuppressWarnings("try")
+    public Result<Object> structured(WebRequest request, HttpServletResponse response, String content, String ec,
+                                     Integer version, Integer scale, Integer columns, String layout, String format) {
+        if (content == null || content.isEmpty()) {
+            throw new IllegalArgumentException("content 不能为空");
+        }
+        // 先按字符数粗判，避免超长内容整体转码；UTF-8 每个字符至少 1 字节
+        int maxBytes = properties.getMaxStructuredContentBytes();
+        if (content.length() > maxBytes || content.getBytes(StandardCharsets.UTF_8).length > maxBytes) {
+            throw new IllegalArgumentException("content 不能超过 " + maxBytes + " 字节");
+        }
+        QrCode.ErrorCorrectionLevel ecLevel = QrCode.ErrorCorrectionLevel.of(ec);
+        int maxVersion = version != null ? version : 10;
+        int moduleSize = scale != null ? checkScale(scale) : 4;
+        boolean set = "set".equalsIgnoreCase(layout);
+        if (!set && layout != null && !layout.isBlank() && !"tile".equalsIgnoreCase(layout)) {
+            throw new IllegalArgumentException("不支持的布局: " + layout);
+        }
+        if (columns != null && columns < 1) {
+            throw new IllegalArgumentException("columns 须为正整数");
+        }
+        FormatEnum.Image image = set ? FormatEnum.Image.PNG : negotiateImage(request, response, format, true);
+
+        CacheUtil.immutable(response);
+        String etag = CacheUtil.etag("structured", content, ecLevel.name(), String.valueOf(maxVersion),
+                String.valueOf(moduleSize), String.valueOf(columns), set ? "set" : "tile", image.name());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // 平铺图命中磁盘缓存时不再编码各符号
+        if (!set && renderCache.serve(etag, response)) {
+            return null;
+        }
+        List<BitMatrix> symbols = StructuredAppend.encode(content, ecLevel, maxVersion, encodeExecutor);
 
-        // 把 BufferedImage 写到 response 输出流
+        if (set) {
+            List<String> images = new ArrayList<>(symbols.size());
+            for (BitMatrix symbol : symbols) {
+                List<BitMatrix> single = List.of(symbol);
+                Dimension size = StructuredAppend.imageSize(single, 1, moduleSize);
+                checkSize(size.width, size.height);
+                try (RenderBudget.Permit ignored = budget.acquire(RenderBudget.estimate(size.width, size.height));
+                     RasterPool.Lease lease = rasterPool.borrow(size.width, size.height, BufferedImage.TYPE_INT_RGB)) {
+                    StructuredAppend.render(single, 1, moduleSize, lease.image());
+                    images.add(ImageUtil.toBase64(lease.image()));
+                }
+            }
+            return Result.success(images);
+        }
+
+        int cols = columns != null ? columns : (int) Math.ceil(Math.sqrt(symbols.size()));
+        Dimension size = StructuredAppend.imageSize(symbols, cols, moduleSize);
+        checkSize(size.width, size.height);
+        renderCachedImage(response, etag, image, size.width, size.height, 0,
+                target -> StructuredAppend.render(symbols, cols, moduleSize, target));
+        return null;
+    }
+
+    /**
+     * 只返回编码结果，不做栅格化：二维码为按行打包的模块矩阵，条码为条空游程
+     * <p>
+     * format=binary 时输出紧凑二进制，否则输出 JSON，格式说明见 {@link RawSymbol}。
+     */
+    @RequestMapping("matrix")
+    public Result<Object> matrix(WebRequest request, HttpServletResponse response, String type, String content,
+                                 String ec, String format) {
+        checkContent(content);
+        boolean barcode = "barcode".equalsIgnoreCase(type);
+        boolean binary = "binary".equalsIgnoreCase(format);
+        if (!binary && format != null && !format.isBlank() && !"json".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+        QrCode.ErrorCorrectionLevel ecLevel = barcode ? null : QrCode.ErrorCorrectionLevel.of(ec);
+        if (!barcode) {
+            QrCode.version(content, ecLevel);
+        }
+
+        CacheUtil.immutable(response);
+        if (request.checkNotModified(CacheUtil.etag("matrix", barcode ? "barcode" : ecLevel.name(), content,
+                binary ? "binary" : "json"))) {
+            return null;
+        }
+        RawSymbol.BarRuns runs = barcode ? RawSymbol.barcode(content) : null;
+        RawSymbol.QrMatrix matrix = barcode ? null : RawSymbol.qrCode(content, ecLevel);
+        if (!binary) {
+            return Result.success(barcode ? runs : matrix);
+        }
+
+        byte[] bytes = barcode ? runs.toBinary() : matrix.toBinary();
+        response.setContentType("application/octet-stream");
+        response.setContentLength(bytes.length);
         try (OutputStream os = response.getOutputStream()) {
-            ImageIO.write(generate, "png", os);
-            os.flush();
+            os.write(bytes);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        return null;
     }
 
-    @RequestMapping("qrcode")
-    public void qrcode(HttpServletResponse response) {
-        BufferedImage generate = QrCode.generate("https://github.com/Harrison-Huang");
-        response.setContentType("image/png");
-        try (OutputStream os = response.getOutputStream()) {
-            ImageIO.write(generate, "png", os);
-            os.flush();
+    /**
+     * 海报尺寸的二维码或条码，按扫描行流式生成并压缩，内存占用与图片高度无关
+     */
+    @RequestMapping("poster")
+    @SuppressWarnings("try")
+    public void poster(WebRequest request, HttpServletResponse response, String type, String content, Integer size,
+                       Integer width, Integer height, String ec, String format) {
+        checkContent(content);
+        boolean barcode = "barcode".equalsIgnoreCase(type);
+        boolean tiff = FormatEnum.Image.TIFF.name().equalsIgnoreCase(format);
+        if (!tiff && format != null && !format.isBlank() && !FormatEnum.Image.PNG.name().equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("不支持的格式: " + format);
+        }
+
+        // 先按请求参数比对 ETag，命中时不再编码和准备扫描行
+        int imageWidth;
+        int imageHeight;
+        QrCode.ErrorCorrectionLevel ecLevel = null;
+        String dimensions;
+        if (barcode) {
+            imageWidth = width != null ? width : 10000;
+            imageHeight = height != null ? height : imageWidth / 3;
+            checkPosterSize(imageWidth, imageHeight);
+            dimensions = imageWidth + "x" + imageHeight;
+        } else {
+            imageWidth = size != null ? size : 10000;
+            imageHeight = imageWidth;
+            checkPosterSize(imageWidth, imageHeight);
+            ecLevel = QrCode.ErrorCorrectionLevel.of(ec);
+            // 只校验容量，编码放到 ETag 比对之后
+            QrCode.version(content, ecLevel);
+            dimensions = ecLevel.name() + "-" + imageWidth;
+        }
+
+        CacheUtil.immutable(response);
+        if (request.checkNotModified(CacheUtil.etag("poster", barcode ? "barcode" : "qrcode", content, dimensions,
+                tiff ? FormatEnum.Image.TIFF.name() : FormatEnum.Image.PNG.name()))) {
+            return;
+        }
+        ScanlineImage image = barcode
+                ? ScanlineImage.barcode(Barcode.encode(content), imageWidth, imageHeight)
+                : ScanlineImage.qrCode(QrCode.encode(content, ecLevel), imageWidth);
+        response.setContentType(tiff ? "image/tiff" : "image/png");
+        try (RenderBudget.Permit ignored = budget.acquire(ScanlineImage.workingSetBytes());
+             OutputStream os = response.getOutputStream()) {
+            if (tiff) {
+                StreamingTiffWriter.write(image, os);
+            } else {
+                StreamingPngWriter.write(image, os);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @RequestMapping("pdf")
+    public void pdf(HttpServletResponse response, String type, @RequestParam(required = false) List<String> content,
+                    Integer columns, Integer rows) {
+        if (content == null || content.isEmpty()) {
+            throw new IllegalArgumentException("content 不能为空");
+        }
+        if (content.size() > properties.getMaxPdfLabels()) {
+            throw new IllegalArgumentException("标签数不能超过 " + properties.getMaxPdfLabels());
+        }
+        int pageColumns = checkPdfGrid(columns, 3, "columns");
+        int pageRows = checkPdfGrid(rows, 8, "rows");
+        boolean barcode = "barcode".equalsIgnoreCase(type);
+        // 开始写出后无法再返回错误信息，先校验全部内容
+        for (String item : content) {
+            checkContent(item);
+            if (!barcode) {
+                QrCode.version(item, QrCode.ErrorCorrectionLevel.L);
+            }
+        }
+        response.setContentType("application/pdf");
+
+        // 逐页写出，内存中只保留当前页
+        try (OutputStream os = response.getOutputStream();
+             PdfLabelWriter writer = new PdfLabelWriter(os, pageColumns, pageRows)) {
+            for (String item : content) {
+                if (barcode) {
+                    writer.addBarcode(item);
+                } else {
+                    writer.addQrCode(item);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     @RequestMapping("captcha")
-    public String captcha() {
-        return Captcha.captchaBase64();
+    public String captcha(HttpServletResponse response) {
+        CacheUtil.noStore(response);
+        String text = Captcha.randomText(4);
+        response.setHeader(CAPTCHA_TOKEN_HEADER, captchaTokenService.issue(text));
+        try (RasterPool.Lease lease = borrowCaptcha()) {
+            Captcha.render(text, lease.image());
+            return ImageUtil.toBase64(lease.image());
+        }
     }
 
     @RequestMapping("captchaImage")
-    public void captchaImage(HttpServletResponse response) {
-        BufferedImage captchaImage = Captcha.captchaImage(Captcha.randomText(4));
-        response.setContentType("image/png");
+    public void captchaImage(WebRequest request, HttpServletResponse response, String format) {
+        // 验证码本身就是噪点图片，允许使用 JPEG
+        FormatEnum.Image image = negotiateImage(request, response, format, false);
+        CacheUtil.noStore(response);
+        String text = Captcha.randomText(4);
+        response.setHeader(CAPTCHA_TOKEN_HEADER, captchaTokenService.issue(text));
+        try (RasterPool.Lease lease = borrowCaptcha()) {
+            Captcha.render(text, lease.image());
+            writeImage(response, image, lease.image());
+        }
+    }
+
+    @RequestMapping("captcha/verify")
+    public Result<Boolean> verifyCaptcha(HttpServletResponse response, String token, String answer) {
+        CacheUtil.noStore(response);
+        return Result.success(captchaTokenService.verify(token, answer));
+    }
+
+    /**
+     * 校验内容长度
+     */
+    private void checkContent(String content) {
+        if (content == null || content.isEmpty()) {
+            throw new IllegalArgumentException("content 不能为空");
+        }
+        if (content.length() > properties.getMaxContentLength()) {
+            throw new IllegalArgumentException("content 长度不能超过 " + properties.getMaxContentLength());
+        }
+    }
+
+    /**
+     * 校验放大倍数，为空时返回1
+     */
+    private int checkScale(Integer scale) {
+        if (scale == null) {
+            return 1;
+        }
+        if (scale < 1 || scale > properties.getMaxScale()) {
+            throw new IllegalArgumentException("scale 取值范围为 1-" + properties.getMaxScale());
+        }
+        return scale;
+    }
+
+    /**
+     * 校验图片尺寸
+     */
+    private void checkSize(int width, int height) {
+        if (width < 1 || width > properties.getMaxWidth() || height < 1 || height > properties.getMaxHeight()) {
+            throw new IllegalArgumentException("图片尺寸不能超过 "
+                    + properties.getMaxWidth() + "x" + properties.getMaxHeight());
+        }
+    }
+
+    /**
+     * 校验 PDF 每页行列数，为空时返回默认值
+     */
+    private int checkPdfGrid(Integer value, int defaultValue, String name) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value < 1 || value > properties.getMaxPdfGrid()) {
+            throw new IllegalArgumentException(name + " 取值范围为 1-" + properties.getMaxPdfGrid());
+        }
+        return value;
+    }
+
+    /**
+     * 校验流式输出尺寸
+     */
+    private void checkPosterSize(int width, int height) {
+        int max = properties.getMaxPosterSize();
+        if (width < 1 || width > max || height < 1 || height > max) {
+            throw new IllegalArgumentException("图片尺寸不能超过 " + max + "x" + max);
+        }
+    }
+
+    /**
+     * 协商图片格式，未指定 format 时结果取决于 Accept，需声明 Vary
+     */
+    private FormatEnum.Image negotiateImage(WebRequest request, HttpServletResponse response, String format,
+                                            boolean lossless) {
+        if (format == null || format.isBlank()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return ImageEncoders.negotiate(format, request.getHeader(HttpHeaders.ACCEPT), lossless);
+    }
+
+    private String formatName(FormatEnum.Printer printer, FormatEnum.Image image) {
+        return printer != null ? printer.name() : image.name();
+    }
+
+    /**
+     * 输出图片
+     */
+    private void writeImage(HttpServletResponse response, FormatEnum.Image format, BufferedImage image) {
+        response.setContentType(format.getContentType());
+        try (OutputStream os = response.getOutputStream()) {
+            ImageEncoders.get(format).write(image, os);
+            os.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private RasterPool.Lease borrowCaptcha() {
+        Dimension size = Captcha.imageSize();
+        return rasterPool.borrow(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private void writeCachedImage(HttpServletResponse response, String etag, FormatEnum.Image format,
+                                  int width, int height, Consumer<BufferedImage> renderer) {
+        writeCachedImage(response, etag, format, width, height, 0, renderer);
+    }
+
+    /**
+     * 磁盘缓存命中时直接输出，否则在内存预算内借用位图缓冲渲染、编码并写入缓存
+     *
+     * @param workingSet 渲染器除目标位图外额外占用的字节数，一并计入预算
+     */
+    private void writeCachedImage(HttpServletResponse response, String etag, FormatEnum.Image format,
+                                  int width, int height, long workingSet, Consumer<BufferedImage> renderer) {
+        if (!renderCache.serve(etag, response)) {
+            renderCachedImage(response, etag, format, width, height, workingSet, renderer);
+        }
+    }
+
+    /**
+     * 在内存预算内借用位图缓冲渲染、编码、写入缓存并输出，调用方已确认缓存未命中
+     */
+    @SuppressWarnings("try")
+    private void renderCachedImage(HttpServletResponse response, String etag, FormatEnum.Image format,
+                                   int width, int height, long workingSet, Consumer<BufferedImage> renderer) {
+        byte[] bytes;
+        try (RenderBudget.Permit ignored = budget.acquire(RenderBudget.estimate(width, height) + workingSet);
+             RasterPool.Lease lease = rasterPool.borrow(width, height, BufferedImage.TYPE_INT_RGB)) {
+            renderer.accept(lease.image());
+            bytes = ImageEncoders.encode(format, lease.image());
+        }
+        renderCache.put(etag, format.getContentType(), bytes);
+        response.setContentType(format.getContentType());
+        response.setContentLength(bytes.length);
+        try (OutputStream os = response.getOutputStream()) {
+            os.write(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 输出打印机指令
+     */
+    private void writePrinter(HttpServletResponse response, FormatEnum.Printer printer, byte[] commands) {
+        response.setContentType(printer.getContentType());
+        response.setContentLength(commands.length);
         try (OutputStream os = response.getOutputStream()) {
-            ImageIO.write(captchaImage, "png", os);
+            os.write(commands);
             os.flush();
         } catch (IOException e) {
             throw new RuntimeException(e);
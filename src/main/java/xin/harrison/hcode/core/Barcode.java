@@ -12,16 +12,19 @@ import java.awt.image.BufferedImage;
  */
 public class Barcode {
 
-    // EAN-13 条形码编码表
-    private static final String[][] EAN13_PATTERNS = {
+    // EAN-13 条形码编码表，每个数字 7 个模块，高位在前
+    private static final int[][] EAN13_PATTERNS = {
         // 左侧A组编码 (奇数位)
-        {"0001101", "0011001", "0010011", "0111101", "0100011", "0110001", "0101111", "0111011", "0110111", "0001011"},
+        {0b0001101, 0b0011001, 0b0010011, 0b0111101, 0b0100011, 0b0110001, 0b0101111, 0b0111011, 0b0110111, 0b0001011},
         // 左侧B组编码 (偶数位)
-        {"0100111", "0110011", "0011011", "0100001", "0011101", "0111001", "0000101", "0010001", "0001001", "0010111"},
+        {0b0100111, 0b0110011, 0b0011011, 0b0100001, 0b0011101, 0b0111001, 0b0000101, 0b0010001, 0b0001001, 0b0010111},
         // 右侧C组编码
-        {"1110010", "1100110", "1101100", "1000010", "1011100", "1001110", "1010000", "1000100", "1001000", "1110100"}
+        {0b1110010, 0b1100110, 0b1101100, 0b1000010, 0b1011100, 0b1001110, 0b1010000, 0b1000100, 0b1001000, 0b1110100}
     };
 
+    // EAN-13 模块总数
+    private static final int EAN13_MODULES = 95;
+
     // 第一位数字决定左侧6位数字的编码模式 (A=0, B=1)
     private static final String[] FIRST_DIGIT_PATTERNS = {
         "AAAAAA", // 0
@@ -36,6 +39,13 @@ public class Barcode {
         "ABBABA"  // 9
     };
 
+    // EAN-13 图片尺寸：95个条 + 左右边距 + 第一位数字的空间，保护条高度 + 文字高度
+    private static final int EAN13_WIDTH = 95 + 2 * 2 + 12;
+    private static final int EAN13_HEIGHT = 55 + 12 + 3;
+
+    // 简单条码图片高度
+    private static final int SIMPLE_HEIGHT = 80;
+
     /**
      * 生成条码图片
      *
@@ -43,32 +53,116 @@ public class Barcode {
      * @return 条码图片
      */
     public static BufferedImage generate(String content) {
+        return generate(content, 1);
+    }
+
+    /**
+     * 生成指定放大倍数的条码图片
+     *
+     * @param content 条码内容
+     * @param scale   放大倍数
+     * @return 条码图片
+     */
+    public static BufferedImage generate(String content, int scale) {
+        Dimension size = imageSize(content, scale);
+        BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+        render(content, scale, image);
+        return image;
+    }
+
+    /**
+     * 将条码绘制到已有图片上，图片尺寸须与 {@link #imageSize} 一致，原有内容全部被覆盖
+     *
+     * @param content 条码内容
+     * @param scale   放大倍数
+     * @param image   目标图片，可以是复用的缓冲
+     */
+    public static void render(String content, int scale, BufferedImage image) {
         // 如果输入不是13位，则使用原来的简单模式
-        if (content.length() != 13 || !content.matches("\\d+")) {
-            return generateSimple(content);
+        if (!isEAN13(content)) {
+            renderSimple(content, scale, image);
+            return;
         }
-        
-        return generateEAN13(content);
+
+        renderEAN13(content, scale, image);
+    }
+
+    /**
+     * 计算条码图片尺寸
+     *
+     * @param content 条码内容
+     * @param scale   放大倍数
+     * @return 图片尺寸
+     */
+    public static Dimension imageSize(String content, int scale) {
+        if (isEAN13(content)) {
+            return new Dimension(EAN13_WIDTH * scale, EAN13_HEIGHT * scale);
+        }
+        return new Dimension((content.length() * 10 + 40) * scale, SIMPLE_HEIGHT * scale);
+    }
+
+    /**
+     * 生成条码模块序列，供矢量或打印机等非位图输出使用
+     * <p>
+     * EAN-13 内容每个字符对应一个 1 倍宽模块；简单模式每个字符对应一个像素宽度。
+     *
+     * @param content 条码内容
+     * @return 模块序列，1 表示条、0 表示空
+     */
+    public static BitArray encode(String content) {
+        return isEAN13(content) ? generateEAN13Binary(content) : generateSimpleBinary(content);
+    }
+
+    /**
+     * 是否按 EAN-13 编码
+     *
+     * @param content 条码内容
+     * @return 13 位数字时返回 true
+     */
+    public static boolean isEAN13(String content) {
+        return content.length() == 13 && content.matches("\\d+");
+    }
+
+    /**
+     * EAN-13 校验位是否正确
+     *
+     * @param content 13 位数字
+     * @return 第 13 位与前 12 位计算出的校验位一致时返回 true
+     */
+    public static boolean hasValidEAN13CheckDigit(String content) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = content.charAt(i) - '0';
+            sum += (i % 2 == 0) ? digit : digit * 3;
+        }
+        return (10 - sum % 10) % 10 == content.charAt(12) - '0';
     }
 
     /**
-     * 生成EAN-13条形码
+     * EAN-13 模块是否属于保护条（起始符、中间符、结束符）
+     *
+     * @param index 模块下标
+     * @return 保护条返回 true
      */
-    private static BufferedImage generateEAN13(String content) {
+    public static boolean isEAN13Guard(int index) {
+        return index < 3 || (index >= 45 && index < 50) || index >= 92;
+    }
+
+    /**
+     * 绘制EAN-13条形码
+     */
+    private static void renderEAN13(String content, int scale, BufferedImage image) {
         int barWidth = 1; // 每个条的基础宽度
         int barHeight = 50; // 条形码高度
         int guardHeight = 55; // 保护条高度
-        int textHeight = 12; // 减少文字区域高度
         int margin = 2; // 减少边距
-        
-        // EAN-13 总共有95个条（3+42+5+42+3）
-        int totalBars = 95;
         int firstDigitWidth = 12; // 第一位数字的空间
-        int width = totalBars * barWidth + margin * 2 + firstDigitWidth;
-        int height = guardHeight + textHeight + 3; // 减少总高度
+        int width = EAN13_WIDTH;
+        int height = EAN13_HEIGHT;
 
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g = image.createGraphics();
+        // 按整数倍放大绘制，条宽仍然对齐像素
+        g.scale(scale, scale);
         
         // 抗锯齿和字体渲染优化
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -81,20 +175,20 @@ public class Barcode {
         g.fillRect(0, 0, width, height);
 
         // 生成条形码数据
-        String binaryData = generateEAN13Binary(content);
+        BitArray binaryData = generateEAN13Binary(content);
         
         // 画条形码
         g.setColor(Color.BLACK);
         int x = margin + firstDigitWidth; // 为第一位数字留出空间
         
-        for (int i = 0; i < binaryData.length(); i++) {
-            if (binaryData.charAt(i) == '1') {
+        for (int i = 0; i < binaryData.size(); i++) {
+            if (binaryData.get(i)) {
                 // 起始符、中间符、结束符使用全高度
                 int currentHeight = barHeight;
                 int yOffset = 2;
                 
                 // 保护条（起始符、中间符、结束符）稍微高一点
-                if (i < 3 || (i >= 45 && i < 50) || i >= 92) {
+                if (isEAN13Guard(i)) {
                     currentHeight = guardHeight;
                     yOffset = 2;
                 }
@@ -128,17 +222,16 @@ public class Barcode {
         g.drawString(rightDigits, rightTextX, textY);
 
         g.dispose();
-        return image;
     }
 
     /**
      * 生成EAN-13二进制数据
      */
-    private static String generateEAN13Binary(String content) {
-        StringBuilder binary = new StringBuilder();
+    private static BitArray generateEAN13Binary(String content) {
+        BitArray binary = new BitArray(EAN13_MODULES);
         
         // 起始符 (3位)
-        binary.append("101");
+        binary.appendBits(0b101, 3);
         
         // 第一位数字决定左侧编码模式
         int firstDigit = Integer.parseInt(content.substring(0, 1));
@@ -149,33 +242,33 @@ public class Barcode {
             int digit = Integer.parseInt(content.substring(i, i + 1));
             char patternType = pattern.charAt(i - 1); // A或B
             int patternIndex = (patternType == 'A') ? 0 : 1;
-            binary.append(EAN13_PATTERNS[patternIndex][digit]);
+            binary.appendBits(EAN13_PATTERNS[patternIndex][digit], 7);
         }
         
         // 中间分隔符 (5位)
-        binary.append("01010");
+        binary.appendBits(0b01010, 5);
         
         // 右侧6位数字 (每位7位，共42位) - 使用C组编码
         for (int i = 7; i <= 12; i++) {
             int digit = Integer.parseInt(content.substring(i, i + 1));
-            binary.append(EAN13_PATTERNS[2][digit]); // 右侧C组编码
+            binary.appendBits(EAN13_PATTERNS[2][digit], 7); // 右侧C组编码
         }
         
         // 结束符 (3位)
-        binary.append("101");
+        binary.appendBits(0b101, 3);
         
-        return binary.toString();
+        return binary;
     }
 
     /**
-     * 生成简单条码（原来的逻辑）
+     * 绘制简单条码（原来的逻辑）
      */
-    private static BufferedImage generateSimple(String content) {
+    private static void renderSimple(String content, int scale, BufferedImage image) {
         int width = content.length() * 10 + 40;
-        int height = 80;
+        int height = SIMPLE_HEIGHT;
 
-        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
 
         // 背景白色
         g.setColor(Color.WHITE);
@@ -183,11 +276,15 @@ public class Barcode {
 
         // 画条码
         g.setColor(Color.BLACK);
+        BitArray binaryData = generateSimpleBinary(content);
         int x = 10;
-        for (char c : content.toCharArray()) {
-            int barWidth = (c % 7 + 1) * 2; // 模拟条码宽度
-            g.fillRect(x, 10, barWidth, 40);
-            x += barWidth + 2;
+        int i = 0;
+        while (i < binaryData.size()) {
+            int run = binaryData.runLength(i);
+            if (binaryData.get(i)) {
+                g.fillRect(x + i, 10, run, 40);
+            }
+            i += run;
         }
 
         // 画数字（在条码下方居中）
@@ -199,6 +296,18 @@ public class Barcode {
         g.drawString(content, textX, textY);
 
         g.dispose();
-        return image;
+    }
+
+    /**
+     * 生成简单条码二进制数据（每位一个像素）
+     */
+    private static BitArray generateSimpleBinary(String content) {
+        BitArray binary = new BitArray(content.length() * 16);
+        for (char c : content.toCharArray()) {
+            int barWidth = (c % 7 + 1) * 2; // 模拟条码宽度
+            binary.appendRun(true, barWidth);
+            binary.appendRun(false, 2);
+        }
+        return binary;
     }
 }
\ No newline at end of file
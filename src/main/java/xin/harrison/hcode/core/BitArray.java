@@ -0,0 +1,201 @@
+package xin.harrison.hcode.core;
+
+import java.util.Arrays;
+
+/**
+ * 可追加的位序列，按 long 数组紧凑存储
+ * <p>
+ * 第 i 位存放在 words[i / 64] 的第 i % 64 位（低位在前）；
+ * 按字节输出时每字节高位在前，与二维码码字和打印机位图的顺序一致。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class BitArray {
+
+    private long[] words;
+    private int size;
+
+    public BitArray() {
+        this(64);
+    }
+
+    /**
+     * @param capacity 预分配的位数
+     */
+    public BitArray(int capacity) {
+        words = new long[Math.max(1, (capacity + 63) >>> 6)];
+    }
+
+    /**
+     * @return 位数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i 位下标
+     * @return 该位是否为 1
+     */
+    public boolean get(int i) {
+        checkIndex(i);
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * 将某位置为 1
+     *
+     * @param i 位下标
+     */
+    public void set(int i) {
+        checkIndex(i);
+        words[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * 设置某位
+     *
+     * @param i     位下标
+     * @param value 取值
+     */
+    public void set(int i, boolean value) {
+        checkIndex(i);
+        if (value) {
+            words[i >>> 6] |= 1L << i;
+        } else {
+            words[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /**
+     * 追加一位
+     *
+     * @param bit 取值
+     */
+    public void appendBit(boolean bit) {
+        ensureCapacity(size + 1);
+        if (bit) {
+            words[size >>> 6] |= 1L << size;
+        }
+        size++;
+    }
+
+    /**
+     * 追加 value 的低 n 位，高位在前
+     *
+     * @param value 取值
+     * @param n     位数（0-32）
+     */
+    public void appendBits(int value, int n) {
+        if (n < 0 || n > 32 || (n < 32 && value >>> n != 0)) {
+            throw new IllegalArgumentException("取值超出位数: " + value + " / " + n);
+        }
+        ensureCapacity(size + n);
+        for (int i = n - 1; i >= 0; i--, size++) {
+            if (((value >>> i) & 1) != 0) {
+                words[size >>> 6] |= 1L << size;
+            }
+        }
+    }
+
+    /**
+     * 追加 n 个相同的位，用于条码中连续的条或空
+     *
+     * @param bit 取值
+     * @param n   个数
+     */
+    public void appendRun(boolean bit, int n) {
+        ensureCapacity(size + n);
+        if (bit) {
+            setRange(size, size + n);
+        }
+        size += n;
+    }
+
+    /**
+     * 追加整个字节数组，每字节高位在前
+     *
+     * @param bytes 字节
+     */
+    public void appendBytes(byte[] bytes) {
+        ensureCapacity(size + bytes.length * 8);
+        for (byte b : bytes) {
+            appendBits(b & 0xFF, 8);
+        }
+    }
+
+    /**
+     * 从 from 开始连续相同位的长度
+     *
+     * @param from 起始下标
+     * @return 游程长度
+     */
+    public int runLength(int from) {
+        boolean bit = get(from);
+        int i = from + 1;
+        while (i < size && get(i) == bit) {
+            i++;
+        }
+        return i - from;
+    }
+
+    /**
+     * 按字节输出，每字节高位在前，末尾不足 8 位补 0
+     *
+     * @return 字节数组
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[(size + 7) >>> 3];
+        for (int i = 0; i < size; i++) {
+            if ((words[i >>> 6] & (1L << i)) != 0) {
+                bytes[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 值为 1 的位数
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private void setRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[w] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    private void ensureCapacity(int bits) {
+        int needed = (bits + 63) >>> 6;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("位下标越界: " + i + " / " + size);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package xin.harrison.hcode.core;
+
+/**
+ * 二维位矩阵，每行按 long 对齐存储
+ * <p>
+ * (x, y) 存放在第 y 行第 x / 64 个 long 的第 x % 64 位（低位在前），
+ * 行尾多余的位始终为 0，整行运算和计数可以直接按 long 进行。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class BitMatrix {
+
+    private final int width;
+    private final int height;
+    private final int rowWords;
+    private final long[] words;
+
+    public BitMatrix(int size) {
+        this(size, size);
+    }
+
+    public BitMatrix(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("矩阵尺寸必须大于0: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.rowWords = (width + 63) >>> 6;
+        this.words = new long[rowWords * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return 每行占用的 long 个数
+     */
+    public int getRowWords() {
+        return rowWords;
+    }
+
+    /**
+     * @param x 列
+     * @param y 行
+     * @return 该位是否为 1
+     */
+    public boolean get(int x, int y) {
+        return (words[y * rowWords + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * 将某位置为 1
+     */
+    public void set(int x, int y) {
+        words[y * rowWords + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * 设置某位
+     */
+    public void set(int x, int y, boolean value) {
+        if (value) {
+            words[y * rowWords + (x >>> 6)] |= 1L << x;
+        } else {
+            words[y * rowWords + (x >>> 6)] &= ~(1L << x);
+        }
+    }
+
+    /**
+     * 翻转某位
+     */
+    public void flip(int x, int y) {
+        words[y * rowWords + (x >>> 6)] ^= 1L << x;
+    }
+
+    /**
+     * 将矩形区域内的位全部置为 1
+     *
+     * @param left   起始列
+     * @param top    起始行
+     * @param w      宽度
+     * @param h      高度
+     */
+    public void setRegion(int left, int top, int w, int h) {
+        int right = left + w;
+        if (left < 0 || top < 0 || w < 1 || h < 1 || right > width || top + h > height) {
+            throw new IllegalArgumentException("区域超出矩阵范围");
+        }
+        for (int y = top; y < top + h; y++) {
+            int offset = y * rowWords;
+            for (int x = left; x < right; ) {
+                int bit = x & 63;
+                int count = Math.min(64 - bit, right - x);
+                long mask = (count == 64 ? -1L : (1L << count) - 1) << bit;
+                words[offset + (x >>> 6)] |= mask;
+                x += count;
+            }
+        }
+    }
+
+    /**
+     * 读取一行，结果写入 row 的前 rowWords 个 long
+     *
+     * @param y   行
+     * @param row 输出数组
+     * @return row
+     */
+    public long[] getRow(int y, long[] row) {
+        System.arraycopy(words, y * rowWords, row, 0, rowWords);
+        return row;
+    }
+
+    /**
+     * 用 row 的前 rowWords 个 long 覆盖一行，超出宽度的位被清除
+     *
+     * @param y   行
+     * @param row 行数据
+     */
+    public void setRow(int y, long[] row) {
+        System.arraycopy(row, 0, words, y * rowWords, rowWords);
+        words[y * rowWords + rowWords - 1] &= lastWordMask();
+    }
+
+    /**
+     * 按位异或：this ^= pattern & ~exclude，exclude 为 null 时不排除任何位
+     * <p>
+     * 二维码掩码即数据区与掩码图案的异或，功能图案通过 exclude 跳过。
+     *
+     * @param pattern 图案，尺寸须与本矩阵相同
+     * @param exclude 不参与异或的位，可为 null
+     */
+    public void xor(BitMatrix pattern, BitMatrix exclude) {
+        checkSameSize(pattern);
+        if (exclude == null) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] ^= pattern.words[i];
+            }
+            return;
+        }
+        checkSameSize(exclude);
+        for (int i = 0; i < words.length; i++) {
+            words[i] ^= pattern.words[i] & ~exclude.words[i];
+        }
+    }
+
+    /**
+     * @return 值为 1 的位数
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param y 行
+     * @return 该行值为 1 的位数
+     */
+    public int rowCardinality(int y) {
+        int count = 0;
+        for (int i = y * rowWords, end = i + rowWords; i < end; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * 按字节输出一行，每字节高位在前，末尾不足 8 位补 0
+     *
+     * @param y 行
+     * @return 字节数组，长度 (width + 7) / 8
+     */
+    public byte[] rowBytes(int y) {
+        byte[] bytes = new byte[(width + 7) >>> 3];
+        int offset = y * rowWords;
+        for (int i = 0; i < bytes.length; i++) {
+            // 取出 8 位后反转位序，使低位列落在字节高位
+            int b = (int) (words[offset + (i >>> 3)] >>> ((i & 7) << 3)) & 0xFF;
+            bytes[i] = (byte) (Integer.reverse(b) >>> 24);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 深拷贝
+     */
+    public BitMatrix copy() {
+        BitMatrix copy = new BitMatrix(width, height);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    private long lastWordMask() {
+        int bits = width & 63;
+        return bits == 0 ? -1L : (1L << bits) - 1;
+    }
+
+    private void checkSameSize(BitMatrix other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("矩阵尺寸不一致");
+        }
+    }
+}
@@ -28,6 +28,26 @@ public class Captcha {
      */
     public static BufferedImage captchaImage(String text) {
         BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        render(text, image);
+        return image;
+    }
+
+    /**
+     * 验证码图片尺寸
+     *
+     * @return 图片尺寸
+     */
+    public static Dimension imageSize() {
+        return new Dimension(WIDTH, HEIGHT);
+    }
+
+    /**
+     * 将验证码绘制到已有图片上，图片尺寸须与 {@link #imageSize} 一致，原有内容全部被覆盖
+     *
+     * @param text  验证码文本
+     * @param image 目标图片，可以是复用的缓冲
+     */
+    public static void render(String text, BufferedImage image) {
         Graphics2D g = image.createGraphics();
 
         // 背景
@@ -53,7 +73,6 @@ public class Captcha {
         }
 
         g.dispose();
-        return image;
     }
 
     /**
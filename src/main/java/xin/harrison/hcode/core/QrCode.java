@@ -7,11 +7,13 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * 二维码生成器 - 纯Java实现
+ * <p>
+ * 字节模式编码，版本1-40按内容长度自动选择，Reed-Solomon 纠错，固定使用掩码0。
  * 
  * @author Harrison
  * @version 1.0.0
@@ -19,10 +21,84 @@ import java.util.List;
  */
 public class QrCode {
 
-    // QR码版本1的基本参数
-    private static final int MODULE_COUNT = 21; // 21x21模块
-    private static final int DATA_CAPACITY = 19; // 数据容量（字节）
-    private static final int ERROR_CORRECTION_CAPACITY = 7; // 纠错容量（字节）
+    /**
+     * 最小版本
+     */
+    public static final int MIN_VERSION = 1;
+
+    /**
+     * 最大版本
+     */
+    public static final int MAX_VERSION = 40;
+
+    /**
+     * 固定使用的掩码编号
+     */
+    public static final int MASK = 0;
+
+    // 各版本尺寸的掩码图案，只读共享
+    private static final BitMatrix[] MASK_PATTERNS = new BitMatrix[MAX_VERSION + 1];
+
+    static {
+        for (int version = MIN_VERSION; version <= MAX_VERSION; version++) {
+            MASK_PATTERNS[version] = maskPattern(moduleCount(version));
+        }
+    }
+
+    // 每个纠错块的纠错码字数，按 L、M、Q、H 和版本索引
+    private static final int[][] ECC_CODEWORDS_PER_BLOCK = {
+        {-1,  7, 10, 15, 20, 26, 18, 20, 24, 30, 18, 20, 24, 26, 30, 22, 24, 28, 30, 28, 28, 28, 28, 30, 30, 26, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+        {-1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26, 30, 22, 22, 24, 24, 28, 28, 26, 26, 26, 26, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28},
+        {-1, 13, 22, 18, 26, 18, 24, 18, 22, 20, 24, 28, 26, 24, 20, 30, 24, 28, 28, 26, 30, 28, 30, 30, 30, 30, 28, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30},
+        {-1, 17, 28, 22, 16, 22, 28, 26, 26, 24, 28, 24, 28, 22, 24, 24, 30, 28, 28, 26, 28, 30, 24, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 30}
+    };
+
+    // 纠错块数，按 L、M、Q、H 和版本索引
+    private static final int[][] NUM_ERROR_CORRECTION_BLOCKS = {
+        {-1, 1, 1, 1, 1, 1, 2, 2, 2, 2, 4,  4,  4,  4,  4,  6,  6,  6,  6,  7,  8,  8,  9,  9, 10, 12, 12, 12, 13, 14, 15, 16, 17, 18, 19, 19, 20, 21, 22, 24, 25},
+        {-1, 1, 1, 1, 2, 2, 4, 4, 4, 5, 5,  5,  8,  9,  9, 10, 10, 11, 13, 14, 16, 17, 17, 18, 20, 21, 23, 25, 26, 28, 29, 31, 33, 35, 37, 38, 40, 43, 45, 47, 49},
+        {-1, 1, 1, 2, 2, 4, 4, 6, 6, 8, 8,  8, 10, 12, 16, 12, 17, 16, 18, 21, 20, 23, 23, 25, 27, 29, 34, 34, 35, 38, 40, 43, 45, 48, 51, 53, 56, 59, 62, 65, 68},
+        {-1, 1, 1, 2, 4, 4, 4, 5, 6, 8, 8, 11, 11, 16, 16, 18, 16, 19, 21, 25, 25, 25, 34, 30, 32, 35, 37, 40, 42, 45, 48, 51, 54, 57, 60, 63, 66, 70, 74, 77, 81}
+    };
+
+    /**
+     * 纠错级别
+     */
+    public enum ErrorCorrectionLevel {
+        // 约7%
+        L(1),
+        // 约15%
+        M(0),
+        // 约25%
+        Q(3),
+        // 约30%
+        H(2);
+
+        // 格式信息中的2位编码
+        final int formatBits;
+
+        ErrorCorrectionLevel(int formatBits) {
+            this.formatBits = formatBits;
+        }
+
+        /**
+         * 按名称查找，忽略大小写，为空时返回 L
+         *
+         * @param name 级别名称
+         * @return 纠错级别
+         */
+        public static ErrorCorrectionLevel of(String name) {
+            if (name == null || name.isBlank()) {
+                return L;
+            }
+            for (ErrorCorrectionLevel level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) {
+                    return level;
+                }
+            }
+            throw new IllegalArgumentException("不支持的纠错级别: " + name);
+        }
+    }
 
     /**
      * 生成二维码图片
@@ -43,12 +119,47 @@ public class QrCode {
      * @return 二维码图片
      */
     public static BufferedImage generate(String content, int width, int height) {
+        return generate(content, ErrorCorrectionLevel.L, width, height);
+    }
+
+    /**
+     * 生成指定纠错级别和尺寸的二维码图片
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @param width   图片宽度
+     * @param height  图片高度
+     * @return 二维码图片
+     */
+    public static BufferedImage generate(String content, ErrorCorrectionLevel ecLevel, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        render(content, ecLevel, image);
+        return image;
+    }
+
+    /**
+     * 将二维码绘制到已有图片上，尺寸取图片尺寸，原有内容全部被覆盖
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @param image   目标图片，可以是复用的缓冲
+     */
+    public static void render(String content, ErrorCorrectionLevel ecLevel, BufferedImage image) {
+        render(generateQRMatrix(content, ecLevel), image);
+    }
+
+    /**
+     * 将模块矩阵绘制到已有图片上，尺寸取图片尺寸，原有内容全部被覆盖
+     *
+     * @param qrMatrix 模块矩阵，1 表示深色模块
+     * @param image    目标图片，可以是复用的缓冲
+     */
+    public static void render(BitMatrix qrMatrix, BufferedImage image) {
         try {
-            // 生成QR码矩阵
-            boolean[][] qrMatrix = generateQRMatrix(content);
-            
-            // 创建图片
-            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            int moduleCount = qrMatrix.getWidth();
+            int width = image.getWidth();
+            int height = image.getHeight();
+
             Graphics2D g = image.createGraphics();
             
             // 抗锯齿
@@ -59,342 +170,546 @@ public class QrCode {
             g.fillRect(0, 0, width, height);
 
             // 计算每个模块的大小
-            int moduleSize = Math.min(width, height) / MODULE_COUNT;
+            int moduleSize = Math.max(1, Math.min(width, height) / moduleCount);
             
-            // 绘制二维码
+            // 绘制二维码，同一行连续的深色模块合并为一个矩形
             g.setColor(Color.BLACK);
-            for (int row = 0; row < MODULE_COUNT; row++) {
-                for (int col = 0; col < MODULE_COUNT; col++) {
-                    if (qrMatrix[row][col]) {
-                        int x = col * moduleSize;
-                        int y = row * moduleSize;
-                        g.fillRect(x, y, moduleSize, moduleSize);
+            for (int row = 0; row < moduleCount; row++) {
+                int col = 0;
+                while (col < moduleCount) {
+                    if (!qrMatrix.get(col, row)) {
+                        col++;
+                        continue;
                     }
+                    int start = col;
+                    while (col < moduleCount && qrMatrix.get(col, row)) {
+                        col++;
+                    }
+                    g.fillRect(start * moduleSize, row * moduleSize, (col - start) * moduleSize, moduleSize);
                 }
             }
 
             g.dispose();
-            return image;
 
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("生成二维码失败: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 生成二维码模块矩阵，供矢量或打印机等非位图输出使用
+     *
+     * @param content 二维码内容
+     * @return 模块矩阵，x 为列、y 为行，1 表示深色模块
+     */
+    public static BitMatrix encode(String content) {
+        return encode(content, ErrorCorrectionLevel.L);
+    }
+
+    /**
+     * 生成指定纠错级别的二维码模块矩阵
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return 模块矩阵，x 为列、y 为行，1 表示深色模块
+     */
+    public static BitMatrix encode(String content, ErrorCorrectionLevel ecLevel) {
+        return generateQRMatrix(content, ecLevel);
+    }
+
+    /**
+     * 计算能容纳内容的最小版本
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return 版本号（1-40）
+     * @throws IllegalArgumentException 内容超出最大容量
+     */
+    public static int version(String content, ErrorCorrectionLevel ecLevel) {
+        int byteCount = content.getBytes(StandardCharsets.UTF_8).length;
+        int version = version(byteCount, 0, ecLevel);
+        if (version < 0) {
+            throw new IllegalArgumentException("内容超出二维码容量: " + byteCount + " 字节");
+        }
+        return version;
+    }
+
+    /**
+     * 计算能容纳字节模式数据的最小版本
+     *
+     * @param byteCount  数据字节数
+     * @param prefixBits 字节模式段之前的附加位数（如结构化追加头）
+     * @param ecLevel    纠错级别
+     * @return 版本号，超出最大容量时返回 -1
+     */
+    static int version(int byteCount, int prefixBits, ErrorCorrectionLevel ecLevel) {
+        for (int version = MIN_VERSION; version <= MAX_VERSION; version++) {
+            if (prefixBits + 4 + charCountBits(version) + byteCount * 8 <= getNumDataCodewords(version, ecLevel) * 8) {
+                return version;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 指定版本能容纳的字节模式数据字节数
+     *
+     * @param version    版本号
+     * @param prefixBits 字节模式段之前的附加位数
+     * @param ecLevel    纠错级别
+     * @return 字节数
+     */
+    static int byteCapacity(int version, int prefixBits, ErrorCorrectionLevel ecLevel) {
+        return (getNumDataCodewords(version, ecLevel) * 8 - prefixBits - 4 - charCountBits(version)) / 8;
+    }
+
+    /**
+     * 指定版本每边的模块数
+     *
+     * @param version 版本号
+     * @return 模块数
+     */
+    public static int moduleCount(int version) {
+        return version * 4 + 17;
+    }
+
     /**
      * 生成QR码矩阵
      */
-    private static boolean[][] generateQRMatrix(String content) {
-        boolean[][] matrix = new boolean[MODULE_COUNT][MODULE_COUNT];
+    private static BitMatrix generateQRMatrix(String content, ErrorCorrectionLevel ecLevel) {
+        return generateQRMatrix(content.getBytes(StandardCharsets.UTF_8), 0, 0, version(content, ecLevel), ecLevel);
+    }
+
+    /**
+     * 按指定版本生成QR码矩阵
+     *
+     * @param data       字节模式数据
+     * @param prefix     字节模式段之前的附加位（如结构化追加头），高位在前
+     * @param prefixBits 附加位数，0 表示没有
+     * @param version    版本号，调用方保证容量足够
+     * @param ecLevel    纠错级别
+     * @return 模块矩阵
+     */
+    static BitMatrix generateQRMatrix(byte[] data, int prefix, int prefixBits, int version,
+                                      ErrorCorrectionLevel ecLevel) {
+        int size = moduleCount(version);
+        BitMatrix matrix = new BitMatrix(size);
+        // 功能区域标记，数据填充和掩码时跳过
+        BitMatrix function = new BitMatrix(size);
         
         // 1. 添加定位图案（三个角落的正方形）
-        addFinderPatterns(matrix);
+        addFinderPatterns(matrix, function);
         
         // 2. 添加分隔符
-        addSeparators(matrix);
+        addSeparators(matrix, function);
         
         // 3. 添加时序图案
-        addTimingPatterns(matrix);
+        addTimingPatterns(matrix, function);
+
+        // 4. 添加校正图案（版本2及以上）
+        addAlignmentPatterns(matrix, function, version);
         
-        // 4. 添加暗模块
-        addDarkModule(matrix);
+        // 5. 添加暗模块
+        addDarkModule(matrix, function);
         
-        // 5. 添加格式信息
-        addFormatInformation(matrix);
+        // 6. 添加格式信息和版本信息
+        addFormatInformation(matrix, function, ecLevel);
+        addVersionInformation(matrix, function, version);
         
-        // 6. 添加数据和纠错码
-        addDataAndErrorCorrection(matrix, content);
+        // 7. 添加数据和纠错码
+        addDataAndErrorCorrection(matrix, function, data, prefix, prefixBits, version, ecLevel);
         
-        // 7. 应用掩码
-        applyMask(matrix);
+        // 8. 应用掩码
+        applyMask(matrix, function);
         
         return matrix;
     }
 
+    /**
+     * 设置功能模块
+     */
+    private static void setFunctionModule(BitMatrix matrix, BitMatrix function, int row, int col, boolean dark) {
+        matrix.set(col, row, dark);
+        function.set(col, row);
+    }
+
     /**
      * 添加定位图案（三个角落的正方形）
      */
-    private static void addFinderPatterns(boolean[][] matrix) {
+    private static void addFinderPatterns(BitMatrix matrix, BitMatrix function) {
+        int size = matrix.getWidth();
         // 左上角定位图案
-        addFinderPattern(matrix, 0, 0);
+        addFinderPattern(matrix, function, 0, 0);
         // 右上角定位图案
-        addFinderPattern(matrix, 0, MODULE_COUNT - 7);
+        addFinderPattern(matrix, function, 0, size - 7);
         // 左下角定位图案
-        addFinderPattern(matrix, MODULE_COUNT - 7, 0);
+        addFinderPattern(matrix, function, size - 7, 0);
     }
 
     /**
      * 添加单个定位图案
      */
-    private static void addFinderPattern(boolean[][] matrix, int startRow, int startCol) {
-        // 外框 7x7
+    private static void addFinderPattern(BitMatrix matrix, BitMatrix function, int startRow, int startCol) {
         for (int i = 0; i < 7; i++) {
             for (int j = 0; j < 7; j++) {
-                if (i == 0 || i == 6 || j == 0 || j == 6) {
-                    matrix[startRow + i][startCol + j] = true;
-                }
-            }
-        }
-        
-        // 内框 3x3
-        for (int i = 2; i < 5; i++) {
-            for (int j = 2; j < 5; j++) {
-                matrix[startRow + i][startCol + j] = true;
+                // 外框 7x7 和内框 3x3 为深色，中间一圈为浅色
+                boolean dark = i == 0 || i == 6 || j == 0 || j == 6 || (i >= 2 && i <= 4 && j >= 2 && j <= 4);
+                setFunctionModule(matrix, function, startRow + i, startCol + j, dark);
             }
         }
-        
-        // 中心点
-        matrix[startRow + 3][startCol + 3] = true;
     }
 
     /**
-     * 添加分隔符
+     * 添加分隔符（定位图案外侧一圈浅色模块）
      */
-    private static void addSeparators(boolean[][] matrix) {
-        // 左上角分隔符
-        for (int i = 7; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                matrix[i][j] = false;
-            }
-        }
+    private static void addSeparators(BitMatrix matrix, BitMatrix function) {
+        int size = matrix.getWidth();
         for (int i = 0; i < 8; i++) {
-            for (int j = 7; j < 8; j++) {
-                matrix[i][j] = false;
-            }
-        }
-        
-        // 右上角分隔符
-        for (int i = 7; i < 8; i++) {
-            for (int j = MODULE_COUNT - 8; j < MODULE_COUNT; j++) {
-                matrix[i][j] = false;
-            }
+            // 左上角分隔符
+            setFunctionModule(matrix, function, 7, i, false);
+            setFunctionModule(matrix, function, i, 7, false);
+            // 右上角分隔符
+            setFunctionModule(matrix, function, 7, size - 1 - i, false);
+            setFunctionModule(matrix, function, i, size - 8, false);
+            // 左下角分隔符
+            setFunctionModule(matrix, function, size - 8, i, false);
+            setFunctionModule(matrix, function, size - 1 - i, 7, false);
         }
-        for (int i = 0; i < 8; i++) {
-            for (int j = MODULE_COUNT - 8; j < MODULE_COUNT - 7; j++) {
-                matrix[i][j] = false;
-            }
+    }
+
+    /**
+     * 添加时序图案
+     */
+    private static void addTimingPatterns(BitMatrix matrix, BitMatrix function) {
+        int size = matrix.getWidth();
+        // 水平时序图案（第6行，避开定位图案）
+        for (int j = 8; j < size - 8; j++) {
+            setFunctionModule(matrix, function, 6, j, j % 2 == 0);
         }
         
-        // 左下角分隔符
-        for (int i = MODULE_COUNT - 8; i < MODULE_COUNT; i++) {
-            for (int j = 7; j < 8; j++) {
-                matrix[i][j] = false;
-            }
+        // 垂直时序图案（第6列，避开定位图案）
+        for (int i = 8; i < size - 8; i++) {
+            setFunctionModule(matrix, function, i, 6, i % 2 == 0);
         }
-        for (int i = MODULE_COUNT - 8; i < MODULE_COUNT - 7; i++) {
-            for (int j = 0; j < 8; j++) {
-                matrix[i][j] = false;
+    }
+
+    /**
+     * 添加校正图案，跳过与定位图案重叠的三个位置
+     */
+    private static void addAlignmentPatterns(BitMatrix matrix, BitMatrix function, int version) {
+        int[] positions = getAlignmentPatternPositions(version);
+        int count = positions.length;
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < count; j++) {
+                if ((i == 0 && j == 0) || (i == 0 && j == count - 1) || (i == count - 1 && j == 0)) {
+                    continue;
+                }
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dx = -2; dx <= 2; dx++) {
+                        boolean dark = Math.max(Math.abs(dx), Math.abs(dy)) != 1;
+                        setFunctionModule(matrix, function, positions[i] + dy, positions[j] + dx, dark);
+                    }
+                }
             }
         }
     }
 
     /**
-     * 添加时序图案
+     * 校正图案中心坐标
      */
-    private static void addTimingPatterns(boolean[][] matrix) {
-        // 水平时序图案（第6行，避开定位图案）
-        for (int j = 8; j < MODULE_COUNT - 8; j++) {
-            matrix[6][j] = (j % 2 == 0);
+    private static int[] getAlignmentPatternPositions(int version) {
+        if (version == 1) {
+            return new int[0];
         }
-        
-        // 垂直时序图案（第6列，避开定位图案）
-        for (int i = 8; i < MODULE_COUNT - 8; i++) {
-            matrix[i][6] = (i % 2 == 0);
+        int count = version / 7 + 2;
+        int step = (version == 32) ? 26 : (version * 4 + count * 2 + 1) / (count * 2 - 2) * 2;
+        int[] result = new int[count];
+        result[0] = 6;
+        for (int i = count - 1, pos = moduleCount(version) - 7; i >= 1; i--, pos -= step) {
+            result[i] = pos;
         }
+        return result;
     }
 
     /**
      * 添加暗模块
      */
-    private static void addDarkModule(boolean[][] matrix) {
-        // 暗模块位于(13, 8)
-        matrix[13][8] = true;
+    private static void addDarkModule(BitMatrix matrix, BitMatrix function) {
+        // 暗模块位于左下角定位图案右上方
+        setFunctionModule(matrix, function, matrix.getWidth() - 8, 8, true);
     }
 
     /**
-     * 添加格式信息
+     * 添加格式信息（纠错级别 + 掩码，BCH(15,5) 编码后与 101010000010010 异或）
      */
-    private static void addFormatInformation(boolean[][] matrix) {
-        // 格式信息：纠错级别L(01) + 掩码模式0(000)
-        // 格式信息：01 000 (纠错级别L + 掩码0)
-        // 与掩码101010000010010进行XOR后的结果
-        int formatInfo = 0b101010000010010 ^ 0b01000;
-        
-        // 放置格式信息（避开定位图案）
-        // 水平放置（第8行，避开定位图案）
-        for (int i = 0; i < 6; i++) {
-            matrix[8][8 + i] = ((formatInfo >> (14 - i)) & 1) == 1;
+    private static void addFormatInformation(BitMatrix matrix, BitMatrix function, ErrorCorrectionLevel ecLevel) {
+        int size = matrix.getWidth();
+        int data = ecLevel.formatBits << 3 | MASK;
+        int rem = data;
+        for (int i = 0; i < 10; i++) {
+            rem = (rem << 1) ^ ((rem >>> 9) * 0x537);
         }
-        matrix[8][7] = ((formatInfo >> 8) & 1) == 1;
-        matrix[8][8] = ((formatInfo >> 7) & 1) == 1;
-        
-        // 垂直放置（第8列，避开定位图案）
-        for (int i = 0; i < 7; i++) {
-            matrix[8 + i][8] = ((formatInfo >> (14 - i)) & 1) == 1;
+        int formatInfo = (data << 10 | rem) ^ 0x5412;
+
+        // 第一份：左上角定位图案周围
+        for (int i = 0; i <= 5; i++) {
+            setFunctionModule(matrix, function, i, 8, getBit(formatInfo, i));
+        }
+        setFunctionModule(matrix, function, 7, 8, getBit(formatInfo, 6));
+        setFunctionModule(matrix, function, 8, 8, getBit(formatInfo, 7));
+        setFunctionModule(matrix, function, 8, 7, getBit(formatInfo, 8));
+        for (int i = 9; i < 15; i++) {
+            setFunctionModule(matrix, function, 8, 14 - i, getBit(formatInfo, i));
+        }
+
+        // 第二份：右上角和左下角定位图案旁
+        for (int i = 0; i < 8; i++) {
+            setFunctionModule(matrix, function, 8, size - 1 - i, getBit(formatInfo, i));
+        }
+        for (int i = 8; i < 15; i++) {
+            setFunctionModule(matrix, function, size - 15 + i, 8, getBit(formatInfo, i));
+        }
+    }
+
+    /**
+     * 添加版本信息（版本7及以上，BCH(18,6) 编码）
+     */
+    private static void addVersionInformation(BitMatrix matrix, BitMatrix function, int version) {
+        if (version < 7) {
+            return;
+        }
+        int rem = version;
+        for (int i = 0; i < 12; i++) {
+            rem = (rem << 1) ^ ((rem >>> 11) * 0x1F25);
+        }
+        int versionInfo = version << 12 | rem;
+
+        int size = matrix.getWidth();
+        for (int i = 0; i < 18; i++) {
+            boolean bit = getBit(versionInfo, i);
+            int a = size - 11 + i % 3;
+            int b = i / 3;
+            setFunctionModule(matrix, function, b, a, bit);
+            setFunctionModule(matrix, function, a, b, bit);
         }
-        matrix[7][8] = ((formatInfo >> 8) & 1) == 1;
     }
 
     /**
      * 添加数据和纠错码
      */
-    private static void addDataAndErrorCorrection(boolean[][] matrix, String content) {
+    private static void addDataAndErrorCorrection(BitMatrix matrix, BitMatrix function, byte[] data, int prefix,
+                                                  int prefixBits, int version, ErrorCorrectionLevel ecLevel) {
         // 生成数据位
-        List<Boolean> dataBits = encodeData(content);
+        BitArray dataBits = encodeData(data, prefix, prefixBits, version, ecLevel);
         
-        // 生成纠错码
-        List<Boolean> errorCorrectionBits = generateErrorCorrection(dataBits);
-        
-        // 合并数据和纠错码
-        List<Boolean> allBits = new ArrayList<>();
-        allBits.addAll(dataBits);
-        allBits.addAll(errorCorrectionBits);
+        // 生成纠错码，与数据码字按块交错
+        BitArray allBits = generateErrorCorrection(dataBits, version, ecLevel);
         
         // 按照QR码标准的数据填充顺序填充矩阵
-        fillMatrixWithData(matrix, allBits);
+        fillMatrixWithData(matrix, function, allBits);
     }
 
     /**
      * 编码数据
      */
-    private static List<Boolean> encodeData(String content) {
-        List<Boolean> bits = new ArrayList<>();
+    private static BitArray encodeData(byte[] data, int prefix, int prefixBits, int version,
+                                       ErrorCorrectionLevel ecLevel) {
+        int capacityBits = getNumDataCodewords(version, ecLevel) * 8;
+        BitArray bits = new BitArray(capacityBits);
+
+        // 附加段（结构化追加头）
+        if (prefixBits > 0) {
+            bits.appendBits(prefix, prefixBits);
+        }
         
         // 模式指示符：字节模式(0100)
-        bits.add(false); bits.add(true); bits.add(false); bits.add(false);
+        bits.appendBits(0b0100, 4);
         
-        // 字符计数指示符（8位）
-        int charCount = content.length();
-        for (int i = 7; i >= 0; i--) {
-            bits.add(((charCount >> i) & 1) == 1);
-        }
+        // 字符计数指示符（版本1-9为8位，10-40为16位）
+        bits.appendBits(data.length, charCountBits(version));
         
-        // 编码每个字符
-        for (char c : content.toCharArray()) {
-            int ascii = (int) c;
-            for (int i = 7; i >= 0; i--) {
-                bits.add(((ascii >> i) & 1) == 1);
-            }
-        }
+        // 编码每个字节
+        bits.appendBytes(data);
         
         // 添加终止符（最多4个0）
-        int terminatorLength = Math.min(4, 8 - (bits.size() % 8));
-        for (int i = 0; i < terminatorLength; i++) {
-            bits.add(false);
-        }
+        bits.appendBits(0, Math.min(4, capacityBits - bits.size()));
         
         // 字节对齐
-        while (bits.size() % 8 != 0) {
-            bits.add(false);
-        }
+        bits.appendBits(0, (8 - bits.size() % 8) % 8);
         
-        // 添加填充字节到数据容量
-        while (bits.size() < DATA_CAPACITY * 8) {
-            // 交替添加236和17
-            if (bits.size() % 16 == 0) {
-                // 添加236 (11101100)
-                bits.add(true); bits.add(true); bits.add(true); bits.add(false);
-                bits.add(true); bits.add(true); bits.add(false); bits.add(false);
-            } else {
-                // 添加17 (00010001)
-                bits.add(false); bits.add(false); bits.add(false); bits.add(true);
-                bits.add(false); bits.add(false); bits.add(false); bits.add(true);
-            }
+        // 添加填充字节到数据容量，交替添加236和17
+        for (int pad = 0xEC; bits.size() < capacityBits; pad ^= 0xEC ^ 0x11) {
+            bits.appendBits(pad, 8);
         }
         
         return bits;
     }
 
     /**
-     * 生成纠错码（简化版本）
+     * 生成纠错码：数据码字分块，每块做 Reed-Solomon 编码，再按列交错数据和纠错码字
      */
-    private static List<Boolean> generateErrorCorrection(List<Boolean> dataBits) {
-        List<Boolean> errorBits = new ArrayList<>();
-        
-        // 简化的纠错码生成，实际应该使用Reed-Solomon编码
-        // 这里生成一些固定的纠错位来确保数据完整性
-        for (int i = 0; i < ERROR_CORRECTION_CAPACITY * 8; i++) {
-            // 生成一些交替的纠错位
-            errorBits.add(i % 2 == 0);
+    private static BitArray generateErrorCorrection(BitArray dataBits, int version,
+                                                    ErrorCorrectionLevel ecLevel) {
+        byte[] data = dataBits.toBytes();
+        int numBlocks = NUM_ERROR_CORRECTION_BLOCKS[ecLevel.ordinal()][version];
+        int blockEccLen = ECC_CODEWORDS_PER_BLOCK[ecLevel.ordinal()][version];
+        int rawCodewords = getNumRawDataModules(version) / 8;
+        int numShortBlocks = numBlocks - rawCodewords % numBlocks;
+        int shortBlockLen = rawCodewords / numBlocks;
+
+        // 短块补一个占位字节，使所有块等长，交错时跳过
+        byte[][] blocks = new byte[numBlocks][];
+        byte[] divisor = reedSolomonComputeDivisor(blockEccLen);
+        for (int i = 0, k = 0; i < numBlocks; i++) {
+            int dataLen = shortBlockLen - blockEccLen + (i < numShortBlocks ? 0 : 1);
+            byte[] block = new byte[shortBlockLen + 1];
+            System.arraycopy(data, k, block, 0, dataLen);
+            byte[] ecc = reedSolomonComputeRemainder(data, k, dataLen, divisor);
+            System.arraycopy(ecc, 0, block, shortBlockLen + 1 - blockEccLen, blockEccLen);
+            blocks[i] = block;
+            k += dataLen;
         }
-        
-        return errorBits;
+
+        BitArray bits = new BitArray(rawCodewords * 8);
+        for (int i = 0; i < shortBlockLen + 1; i++) {
+            for (int j = 0; j < numBlocks; j++) {
+                if (i != shortBlockLen - blockEccLen || j >= numShortBlocks) {
+                    bits.appendBits(blocks[j][i] & 0xFF, 8);
+                }
+            }
+        }
+        return bits;
     }
 
     /**
-     * 按照标准顺序填充数据到矩阵
+     * Reed-Solomon 生成多项式系数（GF(2^8)，本原多项式 0x11D，最高次项省略）
      */
-    private static void fillMatrixWithData(boolean[][] matrix, List<Boolean> dataBits) {
-        int bitIndex = 0;
-        
-        // 从右下角开始，蛇形向上填充
-        for (int col = MODULE_COUNT - 1; col >= 0; col -= 2) {
-            // 避开垂直时序图案
-            if (col == 6) continue;
-            
-            for (int row = MODULE_COUNT - 1; row >= 0; row--) {
-                // 避开功能区域
-                if (isFunctionArea(row, col)) continue;
-                
-                if (bitIndex < dataBits.size()) {
-                    matrix[row][col] = dataBits.get(bitIndex++);
-                } else {
-                    matrix[row][col] = false;
-                }
-                
-                // 检查下一列
-                if (col > 0 && !isFunctionArea(row, col - 1)) {
-                    if (bitIndex < dataBits.size()) {
-                        matrix[row][col - 1] = dataBits.get(bitIndex++);
-                    } else {
-                        matrix[row][col - 1] = false;
-                    }
+    private static byte[] reedSolomonComputeDivisor(int degree) {
+        byte[] result = new byte[degree];
+        result[degree - 1] = 1;
+        int root = 1;
+        for (int i = 0; i < degree; i++) {
+            for (int j = 0; j < degree; j++) {
+                result[j] = (byte) reedSolomonMultiply(result[j] & 0xFF, root);
+                if (j + 1 < degree) {
+                    result[j] ^= result[j + 1];
                 }
             }
+            root = reedSolomonMultiply(root, 0x02);
         }
+        return result;
     }
 
     /**
-     * 检查是否为功能区域
+     * 计算数据多项式除以生成多项式的余数，即纠错码字
      */
-    private static boolean isFunctionArea(int row, int col) {
-        // 定位图案区域
-        if ((row < 9 && col < 9) || 
-            (row < 9 && col > MODULE_COUNT - 9) || 
-            (row > MODULE_COUNT - 9 && col < 9)) {
-            return true;
-        }
-        
-        // 时序图案
-        if (row == 6 || col == 6) {
-            return true;
+    private static byte[] reedSolomonComputeRemainder(byte[] data, int offset, int length, byte[] divisor) {
+        byte[] result = new byte[divisor.length];
+        for (int n = offset; n < offset + length; n++) {
+            int factor = (data[n] ^ result[0]) & 0xFF;
+            System.arraycopy(result, 1, result, 0, result.length - 1);
+            result[result.length - 1] = 0;
+            for (int i = 0; i < result.length; i++) {
+                result[i] ^= (byte) reedSolomonMultiply(divisor[i] & 0xFF, factor);
+            }
         }
-        
-        // 暗模块
-        if (row == 13 && col == 8) {
-            return true;
+        return result;
+    }
+
+    /**
+     * GF(2^8) 乘法
+     */
+    private static int reedSolomonMultiply(int x, int y) {
+        int z = 0;
+        for (int i = 7; i >= 0; i--) {
+            z = (z << 1) ^ ((z >>> 7) * 0x11D);
+            z ^= ((y >>> i) & 1) * x;
         }
-        
-        // 格式信息区域
-        if ((row == 8 && col < 9) || (col == 8 && row < 9)) {
-            return true;
+        return z;
+    }
+
+    /**
+     * 按照标准顺序填充数据到矩阵：从右下角开始，每两列为一组蛇形上下交替，跳过垂直时序图案所在列
+     */
+    private static void fillMatrixWithData(BitMatrix matrix, BitMatrix function, BitArray dataBits) {
+        int size = matrix.getWidth();
+        int bitIndex = 0;
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5;
+            }
+            boolean upward = ((right + 1) & 2) == 0;
+            for (int vert = 0; vert < size; vert++) {
+                int row = upward ? size - 1 - vert : vert;
+                for (int j = 0; j < 2; j++) {
+                    int col = right - j;
+                    // 避开功能区域，剩余位保持浅色
+                    if (!function.get(col, row) && bitIndex < dataBits.size()) {
+                        matrix.set(col, row, dataBits.get(bitIndex++));
+                    }
+                }
+            }
         }
-        
-        return false;
     }
 
     /**
      * 应用掩码
      */
-    private static void applyMask(boolean[][] matrix) {
-        // 使用掩码0：与行号+列号的和的奇偶性进行XOR
-        for (int row = 0; row < MODULE_COUNT; row++) {
-            for (int col = 0; col < MODULE_COUNT; col++) {
-                if (!isFunctionArea(row, col)) {
-                    matrix[row][col] = matrix[row][col] ^ ((row + col) % 2 == 0);
-                }
+    private static void applyMask(BitMatrix matrix, BitMatrix function) {
+        // 使用掩码0：与行号+列号的和的奇偶性进行XOR，整行按 long 异或，跳过功能区域
+        matrix.xor(MASK_PATTERNS[(matrix.getWidth() - 17) / 4], function);
+    }
+
+    /**
+     * 掩码0的图案：(行 + 列) 为偶数处为 1，偶数行与奇数行各为一种交替位型
+     */
+    private static BitMatrix maskPattern(int size) {
+        BitMatrix pattern = new BitMatrix(size);
+        long[] even = new long[pattern.getRowWords()];
+        long[] odd = new long[pattern.getRowWords()];
+        Arrays.fill(even, 0x5555555555555555L);
+        Arrays.fill(odd, 0xAAAAAAAAAAAAAAAAL);
+        for (int row = 0; row < size; row++) {
+            pattern.setRow(row, row % 2 == 0 ? even : odd);
+        }
+        return pattern;
+    }
+
+    /**
+     * 版本可用的数据模块数（去掉所有功能区域）
+     */
+    private static int getNumRawDataModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int numAlign = version / 7 + 2;
+            result -= (25 * numAlign - 10) * numAlign - 55;
+            if (version >= 7) {
+                result -= 36;
             }
         }
+        return result;
+    }
+
+    /**
+     * 版本和纠错级别对应的数据码字数
+     */
+    private static int getNumDataCodewords(int version, ErrorCorrectionLevel ecLevel) {
+        return getNumRawDataModules(version) / 8
+                - ECC_CODEWORDS_PER_BLOCK[ecLevel.ordinal()][version]
+                * NUM_ERROR_CORRECTION_BLOCKS[ecLevel.ordinal()][version];
+    }
+
+    /**
+     * 字节模式字符计数指示符位数
+     */
+    private static int charCountBits(int version) {
+        return version < 10 ? 8 : 16;
+    }
+
+    private static boolean getBit(int value, int i) {
+        return ((value >>> i) & 1) != 0;
     }
 
     /**
@@ -426,12 +741,8 @@ public class QrCode {
                 return qrImage;
             }
 
-            // 创建带图标的二维码
-            BufferedImage finalImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-            Graphics2D g = finalImage.createGraphics();
-
-            // 绘制二维码
-            g.drawImage(qrImage, 0, 0, null);
+            // 图标直接绘制在二维码图片上，不再复制一份整图
+            Graphics2D g = qrImage.createGraphics();
 
             // 计算图标位置和大小
             int iconSize = Math.min(width, height) / 6; // 图标大小为二维码的1/6
@@ -452,7 +763,7 @@ public class QrCode {
             g.drawRoundRect(iconX - 2, iconY - 2, iconSize + 4, iconSize + 4, 10, 10);
 
             g.dispose();
-            return finalImage;
+            return qrImage;
 
         } catch (Exception e) {
             throw new RuntimeException("生成带图标的二维码失败: " + e.getMessage(), e);
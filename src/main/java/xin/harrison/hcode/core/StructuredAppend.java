@@ -0,0 +1,220 @@
+package xin.harrison.hcode.core;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 二维码结构化追加
+ * <p>
+ * 单个符号放不下，或放得下但版本过高、打印尺寸下难以识读的内容，拆分为最多 16 个较低版本的符号，
+ * 扫码端按序号重新拼接。每个符号的数据以结构化追加头开始：
+ * <pre>
+ * 模式 0011(4) 序号(4, 从 0 开始) 符号总数-1(4) 奇偶校验(8, 全部内容字节异或)
+ * </pre>
+ * 之后是普通的字节模式段。拆分只落在 UTF-8 字符边界上，每个符号单独解码也不会出现半个字符；
+ * 各部分长度尽量均衡，全部使用能容纳最长部分的同一版本，平铺后尺寸一致。
+ * 各符号互不依赖，可交给调用方提供的线程池并行编码。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class StructuredAppend {
+
+    /**
+     * 最多拆分的符号数
+     */
+    public static final int MAX_SYMBOLS = 16;
+
+    /**
+     * 平铺时符号四周及之间的空白模块数
+     */
+    public static final int QUIET_ZONE = 4;
+
+    // 结构化追加头位数
+    private static final int HEADER_BITS = 20;
+
+    private StructuredAppend() {
+    }
+
+    /**
+     * 在当前线程中拆分并编码
+     *
+     * @param content    内容
+     * @param ecLevel    纠错级别
+     * @param maxVersion 每个符号允许的最高版本
+     * @return 按序号排列的模块矩阵，内容一个符号放得下时也按结构化追加编码为 1 个符号
+     * @throws IllegalArgumentException 内容为空或 {@value #MAX_SYMBOLS} 个符号仍放不下
+     */
+    public static List<BitMatrix> encode(String content, QrCode.ErrorCorrectionLevel ecLevel, int maxVersion) {
+        return encode(content, ecLevel, maxVersion, Runnable::run);
+    }
+
+    /**
+     * 拆分后把各符号提交到指定线程池并行编码，当前线程等待全部完成
+     *
+     * @param content    内容
+     * @param ecLevel    纠错级别
+     * @param maxVersion 每个符号允许的最高版本
+     * @param executor   编码线程池
+     * @return 按序号排列的模块矩阵，内容一个符号放得下时也按结构化追加编码为 1 个符号
+     * @throws IllegalArgumentException 内容为空或 {@value #MAX_SYMBOLS} 个符号仍放不下
+     */
+    public static List<BitMatrix> encode(String content, QrCode.ErrorCorrectionLevel ecLevel, int maxVersion,
+                                         Executor executor) {
+        if (maxVersion < QrCode.MIN_VERSION || maxVersion > QrCode.MAX_VERSION) {
+            throw new IllegalArgumentException("版本取值范围为 " + QrCode.MIN_VERSION + "-" + QrCode.MAX_VERSION);
+        }
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        if (data.length == 0) {
+            throw new IllegalArgumentException("content 不能为空");
+        }
+        int[] bounds = split(data, QrCode.byteCapacity(maxVersion, HEADER_BITS, ecLevel));
+        if (bounds == null) {
+            throw new IllegalArgumentException("内容超出结构化追加容量: " + data.length + " 字节，最多 "
+                    + MAX_SYMBOLS + " 个版本 " + maxVersion + " 的符号");
+        }
+
+        int count = bounds.length - 1;
+        int longest = 0;
+        for (int i = 0; i < count; i++) {
+            longest = Math.max(longest, bounds[i + 1] - bounds[i]);
+        }
+        int version = QrCode.version(longest, HEADER_BITS, ecLevel);
+        int parity = parity(data);
+        List<CompletableFuture<BitMatrix>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(() -> QrCode.generateQRMatrix(
+                    Arrays.copyOfRange(data, bounds[index], bounds[index + 1]),
+                    0b0011 << 16 | index << 12 | (count - 1) << 8 | parity, HEADER_BITS, version, ecLevel), executor));
+        }
+        List<BitMatrix> symbols = new ArrayList<>(count);
+        for (CompletableFuture<BitMatrix> future : futures) {
+            try {
+                symbols.add(future.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * 奇偶校验字节：全部内容字节的异或
+     *
+     * @param data 内容字节
+     * @return 校验值
+     */
+    public static int parity(byte[] data) {
+        int parity = 0;
+        for (byte b : data) {
+            parity ^= b;
+        }
+        return parity & 0xFF;
+    }
+
+    /**
+     * 平铺图片尺寸
+     *
+     * @param symbols    模块矩阵
+     * @param columns    列数
+     * @param moduleSize 每个模块的像素数
+     * @return 图片尺寸
+     */
+    public static Dimension imageSize(List<BitMatrix> symbols, int columns, int moduleSize) {
+        int cell = symbols.get(0).getWidth() + QUIET_ZONE;
+        int cols = Math.min(columns, symbols.size());
+        int rows = (symbols.size() + cols - 1) / cols;
+        return new Dimension((cols * cell + QUIET_ZONE) * moduleSize, (rows * cell + QUIET_ZONE) * moduleSize);
+    }
+
+    /**
+     * 按序号从左到右、从上到下平铺绘制，图片尺寸须与 {@link #imageSize} 一致，原有内容全部被覆盖
+     *
+     * @param symbols    模块矩阵
+     * @param columns    列数
+     * @param moduleSize 每个模块的像素数
+     * @param image      目标图片，可以是复用的缓冲
+     */
+    public static void render(List<BitMatrix> symbols, int columns, int moduleSize, BufferedImage image) {
+        int moduleCount = symbols.get(0).getWidth();
+        int cell = moduleCount + QUIET_ZONE;
+        int cols = Math.min(columns, symbols.size());
+
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setColor(Color.BLACK);
+        for (int i = 0; i < symbols.size(); i++) {
+            BitMatrix matrix = symbols.get(i);
+            int left = QUIET_ZONE + i % cols * cell;
+            int top = QUIET_ZONE + i / cols * cell;
+            // 同一行连续的深色模块合并为一个矩形
+            for (int row = 0; row < moduleCount; row++) {
+                int col = 0;
+                while (col < moduleCount) {
+                    if (!matrix.get(col, row)) {
+                        col++;
+                        continue;
+                    }
+                    int start = col;
+                    while (col < moduleCount && matrix.get(col, row)) {
+                        col++;
+                    }
+                    g.fillRect((left + start) * moduleSize, (top + row) * moduleSize,
+                            (col - start) * moduleSize, moduleSize);
+                }
+            }
+        }
+        g.dispose();
+    }
+
+    /**
+     * 从最少的符号数开始尝试均衡拆分
+     *
+     * @return 各部分的起止下标（长度为符号数 + 1），放不下时返回 null
+     */
+    private static int[] split(byte[] data, int capacity) {
+        if (capacity <= 0) {
+            return null;
+        }
+        for (int count = (data.length + capacity - 1) / capacity; count <= MAX_SYMBOLS; count++) {
+            int[] bounds = balancedSplit(data, count, capacity);
+            if (bounds != null) {
+                return bounds;
+            }
+        }
+        return null;
+    }
+
+    private static int[] balancedSplit(byte[] data, int count, int capacity) {
+        List<Integer> bounds = new ArrayList<>(count + 1);
+        bounds.add(0);
+        int start = 0;
+        for (int i = 0; i < count && start < data.length; i++) {
+            int remaining = data.length - start;
+            int end = start + Math.min(capacity, (remaining + count - i - 1) / (count - i));
+            // 不拆开多字节字符：后退到下一个字符的首字节
+            while (end < data.length && end > start && (data[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            if (end == start) {
+                return null;
+            }
+            bounds.add(end);
+            start = end;
+        }
+        if (start < data.length) {
+            return null;
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
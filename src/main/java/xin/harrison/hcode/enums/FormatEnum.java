@@ -18,13 +18,18 @@ public enum FormatEnum {
      * @since 2025/8/2
      */
      public enum Image{
-          JPEG("JPEG"),
-          PNG("PNG"),
-          GIF("GIF"),
-          BMP("BMP");
+          JPEG("JPEG", "image/jpeg", true),
+          PNG("PNG", "image/png", false),
+          GIF("GIF", "image/gif", false),
+          BMP("BMP", "image/bmp", false),
+          TIFF("TIFF", "image/tiff", false);
 
          String suffix;
 
+         String contentType;
+
+         boolean lossy;
+
          private String getSuffix(){
              return suffix;
          }
@@ -33,8 +38,39 @@ public enum FormatEnum {
              this.suffix = suffix;
          }
 
-         Image(String suffix){
+         public String getContentType(){
+             return contentType;
+         }
+
+         /**
+          * 是否有损压缩，有损格式会破坏条码和二维码的模块边缘
+          */
+         public boolean isLossy(){
+             return lossy;
+         }
+
+         Image(String suffix, String contentType, boolean lossy){
              this.suffix = suffix;
+             this.contentType = contentType;
+             this.lossy = lossy;
+         }
+
+         /**
+          * 按名称查找，忽略大小写，jpg 视为 JPEG
+          *
+          * @param name 格式名称
+          * @return 对应格式，不是图片格式时返回 null
+          */
+         public static Image of(String name){
+             if ("JPG".equalsIgnoreCase(name)) {
+                 return JPEG;
+             }
+             for (Image image : values()) {
+                 if (image.name().equalsIgnoreCase(name)) {
+                     return image;
+                 }
+             }
+             return null;
          }
      }
 
@@ -52,7 +88,7 @@ public enum FormatEnum {
 
          String name;
 
-         private String getName(){
+         public String getName(){
              return name;
          }
 
@@ -64,4 +100,41 @@ public enum FormatEnum {
              this.name = name;
          }
      }
+
+    /**
+     * 打印机指令格式
+     *
+     * @author Harrison
+     * @version 1.0.0
+     * @since 2026/10/19
+     */
+     public enum Printer{
+          ZPL("application/zpl"),
+          ESCPOS("application/octet-stream");
+
+         String contentType;
+
+         public String getContentType(){
+             return contentType;
+         }
+
+         Printer(String contentType){
+             this.contentType = contentType;
+         }
+
+         /**
+          * 按名称查找，忽略大小写
+          *
+          * @param name 格式名称
+          * @return 对应格式，不是打印机格式时返回 null
+          */
+         public static Printer of(String name){
+             for (Printer printer : values()) {
+                 if (printer.name().equalsIgnoreCase(name)) {
+                     return printer;
+                 }
+             }
+             return null;
+         }
+     }
 }
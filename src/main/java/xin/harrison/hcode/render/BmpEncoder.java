@@ -0,0 +1,66 @@
+package xin.harrison.hcode.render;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * BMP 编码
+ * <p>
+ * 两色图片直接打包为 1 位调色板 BMP：不压缩，只是按行复制位数据，CPU 开销远低于 PNG 的 deflate，
+ * 300x300 的二维码约 12 KB。颜色超过两种时（如抗锯齿的样式二维码）交给 ImageIO 输出 24 位 BMP。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class BmpEncoder {
+
+    // 文件头 14 字节 + BITMAPINFOHEADER 40 字节 + 两项调色板
+    private static final int HEADER_SIZE = 14 + 40 + 2 * 4;
+
+    // 72 dpi
+    private static final int PIXELS_PER_METER = 2835;
+
+    private BmpEncoder() {
+    }
+
+    static void write(BufferedImage image, OutputStream os) throws IOException {
+        TwoColorRaster raster = TwoColorRaster.of(image);
+        if (raster == null) {
+            if (!ImageIO.write(image, "bmp", os)) {
+                throw new IOException("无法编码为 BMP");
+            }
+            return;
+        }
+        os.write(encode(raster));
+    }
+
+    static byte[] encode(TwoColorRaster raster) {
+        // 每行补齐到 4 字节
+        int rowLength = (raster.width + 31) >>> 5 << 2;
+        int imageSize = rowLength * raster.height;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + imageSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 'B').put((byte) 'M').putInt(HEADER_SIZE + imageSize).putInt(0).putInt(HEADER_SIZE);
+
+        buffer.putInt(40).putInt(raster.width).putInt(raster.height);
+        // 平面数 1，位深 1，不压缩
+        buffer.putShort((short) 1).putShort((short) 1).putInt(0).putInt(imageSize);
+        buffer.putInt(PIXELS_PER_METER).putInt(PIXELS_PER_METER).putInt(2).putInt(0);
+        for (int rgb : raster.palette) {
+            // BGRA
+            buffer.put((byte) rgb).put((byte) (rgb >>> 8)).put((byte) (rgb >>> 16)).put((byte) 0);
+        }
+
+        // 高度为正数时自下而上存储
+        byte[] data = buffer.array();
+        for (int y = 0; y < raster.height; y++) {
+            System.arraycopy(raster.bits, y * raster.stride, data,
+                    HEADER_SIZE + (raster.height - 1 - y) * rowLength, raster.stride);
+        }
+        return data;
+    }
+}
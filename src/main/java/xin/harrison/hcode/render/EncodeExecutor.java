@@ -0,0 +1,53 @@
+package xin.harrison.hcode.render;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import xin.harrison.hcode.core.StructuredAppend;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 符号编码专用线程池
+ * <p>
+ * 结构化追加等需要一次编码多个符号的请求在这里并行，不占用 ForkJoinPool 公共线程池。
+ * 线程数等于处理器核数，等待队列有上限，排满时按内存预算不足处理（503），请求线程不会无限堆积任务。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Component
+public class EncodeExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    public EncodeExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        // 队列可容纳每个线程 4 个请求的全部符号
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * StructuredAppend.MAX_SYMBOLS * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hcode-encode-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    throw new RenderBudget.ExhaustedException();
+                });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
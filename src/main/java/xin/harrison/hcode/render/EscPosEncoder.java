@@ -0,0 +1,218 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.QrCode;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ESC/POS 指令输出 - 供小票打印机直接打印
+ * <p>
+ * 打印机原生支持的码制输出 GS k / GS ( k 指令，由打印机自行绘制；
+ * 其余情况使用 GS v 0 光栅位图兜底。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class EscPosEncoder {
+
+    private static final int ESC = 0x1B;
+    private static final int GS = 0x1D;
+
+    // 条码模块宽度（点）
+    private static final int BAR_MODULE_WIDTH = 2;
+    // 条码高度（点）
+    private static final int BAR_HEIGHT = 100;
+    // 二维码模块大小（点）
+    private static final int QR_MODULE_SIZE = 4;
+    // 打印后走纸行数
+    private static final int FEED_LINES = 3;
+
+    /**
+     * 生成条码打印指令
+     * <p>
+     * 校验位正确的 EAN-13 使用 GS k 67，可打印 ASCII 内容使用 Code 128 (GS k 73)，其余使用光栅位图。
+     *
+     * @param content 条码内容
+     * @return ESC/POS 指令
+     */
+    public static byte[] barcode(String content) {
+        boolean ean13 = Barcode.isEAN13(content);
+        // 校验位错误时打印机会重新计算校验位，用位图保证与图片输出一致
+        if (ean13 ? !Barcode.hasValidEAN13CheckDigit(content) : !isCode128B(content)) {
+            return barcodeRaster(content);
+        }
+
+        ByteArrayOutputStream out = begin();
+        // 高度、模块宽度、文字显示在条码下方
+        out.write(GS);
+        out.write('h');
+        out.write(BAR_HEIGHT);
+        out.write(GS);
+        out.write('w');
+        out.write(BAR_MODULE_WIDTH);
+        out.write(GS);
+        out.write('H');
+        out.write(2);
+
+        byte[] data;
+        out.write(GS);
+        out.write('k');
+        if (ean13) {
+            // 只发送前12位，校验位由打印机计算
+            data = content.substring(0, 12).getBytes(StandardCharsets.US_ASCII);
+            out.write(67);
+        } else {
+            // {B 选择 Code 128 B 字符集，数据中的 '{' 需要写成 "{{"
+            data = ("{B" + content.replace("{", "{{")).getBytes(StandardCharsets.US_ASCII);
+            out.write(73);
+        }
+        out.write(data.length);
+        out.writeBytes(data);
+        return end(out);
+    }
+
+    /**
+     * 生成二维码打印指令（GS ( k，模型2，纠错级别L）
+     *
+     * @param content 二维码内容
+     * @return ESC/POS 指令
+     */
+    public static byte[] qrCode(String content) {
+        return qrCode(content, QrCode.ErrorCorrectionLevel.L);
+    }
+
+    /**
+     * 生成指定纠错级别的二维码打印指令（GS ( k，模型2）
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return ESC/POS 指令
+     */
+    public static byte[] qrCode(String content, QrCode.ErrorCorrectionLevel ecLevel) {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = begin();
+        // 选择模型2
+        qrFunction(out, 0x41, 0x32, 0x00);
+        // 模块大小
+        qrFunction(out, 0x43, QR_MODULE_SIZE);
+        // 纠错级别，48-51 依次为 L、M、Q、H
+        qrFunction(out, 0x45, 0x30 + ecLevel.ordinal());
+        // 存储数据
+        int length = data.length + 3;
+        out.write(GS);
+        out.write('(');
+        out.write('k');
+        out.write(length & 0xFF);
+        out.write(length >>> 8);
+        out.write(0x31);
+        out.write(0x50);
+        out.write(0x30);
+        out.writeBytes(data);
+        // 打印已存储的数据
+        qrFunction(out, 0x51, 0x30);
+        return end(out);
+    }
+
+    /**
+     * 按条码模块序列生成 GS v 0 光栅指令
+     *
+     * @param content 条码内容
+     * @return ESC/POS 指令
+     */
+    public static byte[] barcodeRaster(String content) {
+        byte[] row = MonoBitmap.packRow(Barcode.encode(content), BAR_MODULE_WIDTH);
+        ByteArrayOutputStream out = begin();
+        writeRaster(out, new byte[][]{row}, BAR_HEIGHT);
+        return end(out);
+    }
+
+    /**
+     * 按二维码模块矩阵生成 GS v 0 光栅指令
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return ESC/POS 指令
+     */
+    public static byte[] qrCodeRaster(String content, QrCode.ErrorCorrectionLevel ecLevel) {
+        byte[][] rows = MonoBitmap.packRows(QrCode.encode(content, ecLevel), QR_MODULE_SIZE);
+        ByteArrayOutputStream out = begin();
+        writeRaster(out, rows, QR_MODULE_SIZE);
+        return end(out);
+    }
+
+    /**
+     * 写出 GS v 0 光栅位图，每个模块行纵向重复 repeat 次
+     */
+    private static void writeRaster(ByteArrayOutputStream out, byte[][] rows, int repeat) {
+        int bytesPerRow = rows[0].length;
+        int height = rows.length * repeat;
+        out.write(GS);
+        out.write('v');
+        out.write('0');
+        out.write(0);
+        out.write(bytesPerRow & 0xFF);
+        out.write(bytesPerRow >>> 8);
+        out.write(height & 0xFF);
+        out.write(height >>> 8);
+        for (byte[] row : rows) {
+            for (int i = 0; i < repeat; i++) {
+                out.writeBytes(row);
+            }
+        }
+    }
+
+    /**
+     * 写出 GS ( k 二维码功能指令，cn 固定为 49
+     */
+    private static void qrFunction(ByteArrayOutputStream out, int fn, int... params) {
+        int length = params.length + 2;
+        out.write(GS);
+        out.write('(');
+        out.write('k');
+        out.write(length & 0xFF);
+        out.write(length >>> 8);
+        out.write(0x31);
+        out.write(fn);
+        for (int param : params) {
+            out.write(param);
+        }
+    }
+
+    /**
+     * Code 128 B 字符集仅支持可打印 ASCII，且 GS k 的数据长度不超过255
+     */
+    private static boolean isCode128B(String content) {
+        if (content.isEmpty() || content.length() > 120) {
+            return false;
+        }
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteArrayOutputStream begin() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        // ESC @ 初始化打印机，ESC a 1 居中
+        out.write(ESC);
+        out.write('@');
+        out.write(ESC);
+        out.write('a');
+        out.write(1);
+        return out;
+    }
+
+    private static byte[] end(ByteArrayOutputStream out) {
+        // ESC d n 打印并走纸
+        out.write(ESC);
+        out.write('d');
+        out.write(FEED_LINES);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,174 @@
+package xin.harrison.hcode.render;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * GIF 编码
+ * <p>
+ * 两色图片使用自带的 LZW 编码：像素只有 0、1 两个取值，字典以 (前缀码, 像素) 直接寻址，
+ * 不需要散列表，编码一个像素只是一次数组读取。条码和二维码由大片同色区域组成，
+ * 压缩后通常比同尺寸的 PNG 还小。颜色超过两种时交给 ImageIO 生成调色板后输出。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class GifEncoder {
+
+    // GIF 规定最小码长不能小于 2，两色图片的像素值仍按 2 位字母表编码
+    private static final int MIN_CODE_SIZE = 2;
+    private static final int CLEAR_CODE = 1 << MIN_CODE_SIZE;
+    private static final int END_CODE = CLEAR_CODE + 1;
+    private static final int FIRST_CODE = CLEAR_CODE + 2;
+    private static final int MAX_CODE_SIZE = 12;
+    private static final int MAX_CODES = 1 << MAX_CODE_SIZE;
+
+    private GifEncoder() {
+    }
+
+    static void write(BufferedImage image, OutputStream os) throws IOException {
+        TwoColorRaster raster = TwoColorRaster.of(image);
+        if (raster == null) {
+            if (!ImageIO.write(image, "gif", os)) {
+                throw new IOException("无法编码为 GIF");
+            }
+            return;
+        }
+        os.write(encode(raster));
+    }
+
+    static byte[] encode(TwoColorRaster raster) {
+        if (raster.width > 0xFFFF || raster.height > 0xFFFF) {
+            throw new IllegalArgumentException("GIF 尺寸不能超过 65535x65535");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raster.bits.length / 4 + 64);
+        out.writeBytes(new byte[]{'G', 'I', 'F', '8', '9', 'a'});
+        // 逻辑屏幕：全局调色板 2 项
+        writeShort(out, raster.width);
+        writeShort(out, raster.height);
+        out.write(0x80);
+        out.write(0);
+        out.write(0);
+        for (int rgb : raster.palette) {
+            out.write(rgb >>> 16);
+            out.write(rgb >>> 8);
+            out.write(rgb);
+        }
+        // 图像描述符：覆盖整个屏幕，不隔行，无局部调色板
+        out.write(0x2C);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, raster.width);
+        writeShort(out, raster.height);
+        out.write(0);
+
+        out.write(MIN_CODE_SIZE);
+        compress(raster, new BlockWriter(out));
+        out.write(0x3B);
+        return out.toByteArray();
+    }
+
+    /**
+     * LZW 压缩，码长增长和字典满后的清除时机与通用解码器一致：
+     * 输出一个码之后，若下一个待分配的码超出当前码长则码长加 1；字典满时输出清除码并从最小码长重新开始
+     */
+    private static void compress(TwoColorRaster raster, BlockWriter out) {
+        // next[code * 2 + pixel]：前缀 code 后接 pixel 得到的码，0 表示不存在
+        short[] next = new short[MAX_CODES * 2];
+        int codeSize = MIN_CODE_SIZE + 1;
+        int freeCode = FIRST_CODE;
+
+        out.write(CLEAR_CODE, codeSize);
+        int prefix = raster.get(0, 0);
+        for (int y = 0; y < raster.height; y++) {
+            for (int x = y == 0 ? 1 : 0; x < raster.width; x++) {
+                int pixel = raster.get(x, y);
+                int slot = prefix << 1 | pixel;
+                int code = next[slot];
+                if (code != 0) {
+                    prefix = code;
+                    continue;
+                }
+                out.write(prefix, codeSize);
+                if (freeCode >= 1 << codeSize && codeSize < MAX_CODE_SIZE) {
+                    codeSize++;
+                }
+                if (freeCode < MAX_CODES) {
+                    next[slot] = (short) freeCode++;
+                } else {
+                    out.write(CLEAR_CODE, codeSize);
+                    Arrays.fill(next, (short) 0);
+                    codeSize = MIN_CODE_SIZE + 1;
+                    freeCode = FIRST_CODE;
+                }
+                prefix = pixel;
+            }
+        }
+        out.write(prefix, codeSize);
+        if (freeCode >= 1 << codeSize && codeSize < MAX_CODE_SIZE) {
+            codeSize++;
+        }
+        out.write(END_CODE, codeSize);
+        out.finish();
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+    }
+
+    /**
+     * 按低位在前拼接变长码，以不超过 255 字节的数据子块输出
+     */
+    private static final class BlockWriter {
+
+        private final ByteArrayOutputStream out;
+        private final byte[] block = new byte[255];
+        private int blockLength;
+        private int bitBuffer;
+        private int bitCount;
+
+        BlockWriter(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+
+        void write(int code, int size) {
+            bitBuffer |= code << bitCount;
+            bitCount += size;
+            while (bitCount >= 8) {
+                writeByte(bitBuffer);
+                bitBuffer >>>= 8;
+                bitCount -= 8;
+            }
+        }
+
+        void finish() {
+            if (bitCount > 0) {
+                writeByte(bitBuffer);
+            }
+            flushBlock();
+            // 子块结束标记
+            out.write(0);
+        }
+
+        private void writeByte(int value) {
+            block[blockLength++] = (byte) value;
+            if (blockLength == block.length) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() {
+            if (blockLength > 0) {
+                out.write(blockLength);
+                out.write(block, 0, blockLength);
+                blockLength = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package xin.harrison.hcode.render;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 图片编码器，按 {@link xin.harrison.hcode.enums.FormatEnum.Image} 注册在 {@link ImageEncoders} 中
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@FunctionalInterface
+public interface ImageEncoder {
+
+    /**
+     * 编码图片
+     *
+     * @param image 图片
+     * @param os    输出流，不会被关闭
+     * @throws IOException 写出失败
+     */
+    void write(BufferedImage image, OutputStream os) throws IOException;
+}
@@ -0,0 +1,127 @@
+package xin.harrison.hcode.render;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import xin.harrison.hcode.enums.FormatEnum;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图片编码器注册表与输出格式协商
+ * <p>
+ * GIF、BMP 使用针对两色图片的编码器（{@link GifEncoder}、{@link BmpEncoder}），其余格式使用 ImageIO。
+ * 格式由 format 参数指定，未指定时按 Accept 头中质量值最高且支持的类型选择，都不支持时使用 PNG。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class ImageEncoders {
+
+    private static final Map<FormatEnum.Image, ImageEncoder> ENCODERS = new EnumMap<>(FormatEnum.Image.class);
+
+    // Accept 为通配或同等质量时的优先顺序
+    private static final List<FormatEnum.Image> PREFERENCE = List.of(FormatEnum.Image.PNG, FormatEnum.Image.GIF,
+            FormatEnum.Image.BMP, FormatEnum.Image.TIFF, FormatEnum.Image.JPEG);
+
+    static {
+        ENCODERS.put(FormatEnum.Image.PNG, imageIO("png"));
+        ENCODERS.put(FormatEnum.Image.JPEG, imageIO("jpeg"));
+        ENCODERS.put(FormatEnum.Image.TIFF, imageIO("tiff"));
+        ENCODERS.put(FormatEnum.Image.GIF, GifEncoder::write);
+        ENCODERS.put(FormatEnum.Image.BMP, BmpEncoder::write);
+    }
+
+    private ImageEncoders() {
+    }
+
+    /**
+     * 获取编码器
+     *
+     * @param format 图片格式
+     * @return 编码器
+     */
+    public static ImageEncoder get(FormatEnum.Image format) {
+        return ENCODERS.get(format);
+    }
+
+    /**
+     * 编码为字节
+     *
+     * @param format 图片格式
+     * @param image  图片
+     * @return 编码结果
+     */
+    public static byte[] encode(FormatEnum.Image format, BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            get(format).write(image, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 协商输出格式
+     *
+     * @param format   format 参数，优先于 Accept
+     * @param accept   Accept 请求头
+     * @param lossless 是否只允许无损格式，条码和二维码为 true
+     * @return 图片格式
+     * @throws IllegalArgumentException format 不是图片格式，或要求无损时指定了有损格式
+     */
+    public static FormatEnum.Image negotiate(String format, String accept, boolean lossless) {
+        if (format != null && !format.isBlank()) {
+            FormatEnum.Image image = FormatEnum.Image.of(format);
+            if (image == null) {
+                throw new IllegalArgumentException("不支持的格式: " + format);
+            }
+            if (lossless && image.isLossy()) {
+                throw new IllegalArgumentException("条码和二维码不支持有损格式: " + image.name());
+            }
+            return image;
+        }
+        if (accept == null || accept.isBlank()) {
+            return FormatEnum.Image.PNG;
+        }
+
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return FormatEnum.Image.PNG;
+        }
+        // 稳定排序，同等质量时保持请求中的顺序
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() <= 0) {
+                break;
+            }
+            for (FormatEnum.Image image : PREFERENCE) {
+                if (lossless && image.isLossy()) {
+                    continue;
+                }
+                if (mediaType.includes(MediaType.parseMediaType(image.getContentType()))) {
+                    return image;
+                }
+            }
+        }
+        return FormatEnum.Image.PNG;
+    }
+
+    private static ImageEncoder imageIO(String formatName) {
+        return (image, os) -> {
+            if (!ImageIO.write(image, formatName, os)) {
+                throw new IOException("无法编码为 " + formatName);
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.BitArray;
+import xin.harrison.hcode.core.BitMatrix;
+
+/**
+ * 1 位单色位图打包工具，高位在前，1 表示黑色
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class MonoBitmap {
+
+    private MonoBitmap() {
+    }
+
+    /**
+     * 每行打包后的字节数
+     *
+     * @param width 像素宽度
+     * @return 字节数
+     */
+    static int bytesPerRow(int width) {
+        return (width + 7) >>> 3;
+    }
+
+    /**
+     * 将一行条码模块按倍数横向放大后打包为字节
+     *
+     * @param modules 模块序列
+     * @param scale   每个模块的点数
+     * @return 打包后的行数据
+     */
+    static byte[] packRow(BitArray modules, int scale) {
+        byte[] row = new byte[bytesPerRow(modules.size() * scale)];
+        for (int i = 0; i < modules.size(); i++) {
+            if (modules.get(i)) {
+                fill(row, i * scale, scale);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 将矩阵每行按倍数横向放大后打包为字节
+     *
+     * @param matrix 模块矩阵
+     * @param scale  每个模块的点数
+     * @return 每个模块行打包后的数据
+     */
+    static byte[][] packRows(BitMatrix matrix, int scale) {
+        byte[][] rows = new byte[matrix.getHeight()][];
+        for (int y = 0; y < rows.length; y++) {
+            // 1 倍时矩阵的行字节视图即为结果
+            if (scale == 1) {
+                rows[y] = matrix.rowBytes(y);
+                continue;
+            }
+            byte[] row = new byte[bytesPerRow(matrix.getWidth() * scale)];
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                if (matrix.get(x, y)) {
+                    fill(row, x * scale, scale);
+                }
+            }
+            rows[y] = row;
+        }
+        return rows;
+    }
+
+    private static void fill(byte[] row, int from, int count) {
+        for (int x = from; x < from + count; x++) {
+            row[x >>> 3] |= (byte) (0x80 >>> (x & 7));
+        }
+    }
+}
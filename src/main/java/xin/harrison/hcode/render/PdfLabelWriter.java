@@ -0,0 +1,421 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.BitArray;
+import xin.harrison.hcode.core.BitMatrix;
+import xin.harrison.hcode.core.QrCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * PDF 标签输出 - 流式写出的轻量 PDF 生成器
+ * <p>
+ * 二维码模块和条码条直接以合并后的矢量矩形写入内容流，不做位图栅格化。
+ * 每页排满即压缩写出到输出流，只在内存中保留当前页内容和对象偏移表，
+ * 结束时写出页树、交叉引用表和文件尾。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class PdfLabelWriter implements Closeable {
+
+    /**
+     * A4 纸张宽度（pt）
+     */
+    public static final float A4_WIDTH = 595.28f;
+
+    /**
+     * A4 纸张高度（pt）
+     */
+    public static final float A4_HEIGHT = 841.89f;
+
+    // 固定对象编号：目录、页树、字体
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_ID = 3;
+
+    // 二维码静区（模块数）
+    private static final int QUIET_ZONE = 4;
+    // 标签内边距（pt）
+    private static final float PADDING = 4f;
+    // 条码文字字号（pt）
+    private static final float FONT_SIZE = 8f;
+
+    private final CountingOutputStream out;
+    private final float pageWidth;
+    private final float pageHeight;
+    private final int columns;
+    private final int rows;
+    private final float margin;
+
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(64 * 1024);
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] deflateBuffer = new byte[16 * 1024];
+
+    private long[] offsets = new long[64];
+    private int[] pageIds = new int[16];
+    private int pageCount;
+    private int nextId = FONT_ID + 1;
+    private int labelIndex;
+    private boolean closed;
+
+    /**
+     * 创建 A4 纸张、指定行列数的标签输出
+     *
+     * @param out     输出流
+     * @param columns 每页列数
+     * @param rows    每页行数
+     * @throws IOException 写出失败
+     */
+    public PdfLabelWriter(OutputStream out, int columns, int rows) throws IOException {
+        this(out, A4_WIDTH, A4_HEIGHT, columns, rows, 18f);
+    }
+
+    /**
+     * 创建标签输出
+     *
+     * @param out        输出流
+     * @param pageWidth  页面宽度（pt）
+     * @param pageHeight 页面高度（pt）
+     * @param columns    每页列数
+     * @param rows       每页行数
+     * @param margin     页边距（pt）
+     * @throws IOException 写出失败
+     */
+    public PdfLabelWriter(OutputStream out, float pageWidth, float pageHeight, int columns, int rows, float margin)
+            throws IOException {
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("每页行列数必须大于0");
+        }
+        this.out = new CountingOutputStream(out);
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.margin = margin;
+
+        // 文件头，第二行的高位字节用于标识二进制文件
+        this.out.write("%PDF-1.4\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 添加一个二维码标签
+     *
+     * @param content 二维码内容
+     * @throws IOException 写出失败
+     */
+    public void addQrCode(String content) throws IOException {
+        float[] cell = nextCell();
+        BitMatrix matrix = QrCode.encode(content);
+        int size = matrix.getWidth();
+
+        float cellSize = Math.min(cell[2], cell[3]);
+        float scale = cellSize / (size + QUIET_ZONE * 2);
+        float x = cell[0] + (cell[2] - cellSize) / 2 + QUIET_ZONE * scale;
+        float y = cell[1] + (cell[3] - cellSize) / 2 + QUIET_ZONE * scale;
+
+        // 以模块为单位建立坐标系，矩形坐标全部是整数
+        write("q ").num(scale).write(" 0 0 ").num(scale).write(" ").num(x).write(" ").num(y).write(" cm\n");
+        writeModules(matrix);
+        write("f\nQ\n");
+        finishLabel();
+    }
+
+    /**
+     * 添加一个条码标签
+     *
+     * @param content 条码内容
+     * @throws IOException 写出失败
+     */
+    public void addBarcode(String content) throws IOException {
+        float[] cell = nextCell();
+        BitArray bars = Barcode.encode(content);
+        boolean ean13 = Barcode.isEAN13(content);
+
+        float textHeight = FONT_SIZE + 2;
+        float barHeight = cell[3] - textHeight;
+        float guardExtend = ean13 ? FONT_SIZE / 2 : 0;
+        float scale = cell[2] / bars.size();
+
+        // 横向以模块为单位，纵向以 pt 为单位
+        write("q ").num(scale).write(" 0 0 1 ").num(cell[0]).write(" ").num(cell[1] + textHeight).write(" cm\n");
+        int i = 0;
+        while (i < bars.size()) {
+            int run = bars.runLength(i);
+            if (bars.get(i)) {
+                float extend = ean13 && Barcode.isEAN13Guard(i) ? guardExtend : 0;
+                write(Integer.toString(i)).write(" ").num(-extend).write(" ")
+                        .write(Integer.toString(run)).write(" ").num(barHeight + extend).write(" re\n");
+            }
+            i += run;
+        }
+        write("f\nQ\n");
+
+        // 标准14字体无需嵌入，仅支持可打印 ASCII
+        float textWidth = content.length() * FONT_SIZE * 0.556f;
+        write("BT /F1 ").num(FONT_SIZE).write(" Tf ")
+                .num(cell[0] + Math.max(0, (cell[2] - textWidth) / 2)).write(" ").num(cell[1]).write(" Td (");
+        writeText(content);
+        write(") Tj ET\n");
+        finishLabel();
+    }
+
+    /**
+     * 写出剩余页面、页树、交叉引用表和文件尾
+     *
+     * @throws IOException 写出失败
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (labelIndex > 0 || pageCount == 0) {
+                flushPage();
+            }
+
+            beginObject(FONT_ID);
+            emit("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\n");
+            endObject();
+
+            beginObject(PAGES_ID);
+            StringBuilder kids = new StringBuilder(pageCount * 10 + 48);
+            kids.append("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+            for (int i = 0; i < pageCount; i++) {
+                kids.append(pageIds[i]).append(" 0 R ");
+            }
+            emit(kids.append("] >>\n").toString());
+            endObject();
+
+            beginObject(CATALOG_ID);
+            emit("<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>\n");
+            endObject();
+
+            // 交叉引用表，每条记录固定20字节
+            long xref = out.count;
+            StringBuilder sb = new StringBuilder(nextId * 20 + 64);
+            sb.append("xref\n0 ").append(nextId).append('\n');
+            sb.append("0000000000 65535 f \n");
+            for (int id = 1; id < nextId; id++) {
+                String offset = Long.toString(offsets[id]);
+                sb.append("0".repeat(10 - offset.length())).append(offset).append(" 00000 n \n");
+            }
+            sb.append("trailer\n<< /Size ").append(nextId).append(" /Root ").append(CATALOG_ID).append(" 0 R >>\n");
+            sb.append("startxref\n").append(xref).append("\n%%EOF\n");
+            emit(sb.toString());
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 按行扫描模块矩阵，横向合并连续深色模块，纵向合并上下相同的矩形
+     */
+    private void writeModules(BitMatrix matrix) {
+        int size = matrix.getWidth();
+        // open[x] > 0 表示从 openStart[x] 行开始、宽度为 open[x] 的矩形仍在延续
+        int[] open = new int[size];
+        int[] openStart = new int[size];
+        int[] runs = new int[size + 1];
+
+        for (int row = 0; row <= size; row++) {
+            // 当前行的连续深色区间：runs[x] 为从 x 开始的宽度
+            Arrays.fill(runs, 0);
+            if (row < size) {
+                int col = 0;
+                while (col < size) {
+                    if (!matrix.get(col, row)) {
+                        col++;
+                        continue;
+                    }
+                    int start = col;
+                    while (col < size && matrix.get(col, row)) {
+                        col++;
+                    }
+                    runs[start] = col - start;
+                }
+            }
+
+            for (int x = 0; x < size; x++) {
+                if (open[x] > 0 && open[x] != runs[x]) {
+                    writeRect(x, size - row, open[x], row - openStart[x]);
+                    open[x] = 0;
+                }
+                if (runs[x] > 0 && open[x] == 0) {
+                    open[x] = runs[x];
+                    openStart[x] = row;
+                }
+            }
+        }
+    }
+
+    private void writeRect(int x, int y, int width, int height) {
+        write(Integer.toString(x)).write(" ").write(Integer.toString(y)).write(" ")
+                .write(Integer.toString(width)).write(" ").write(Integer.toString(height)).write(" re\n");
+    }
+
+    /**
+     * 计算下一个标签格子，返回 {x, y, width, height}，原点在左下角
+     */
+    private float[] nextCell() {
+        if (closed) {
+            throw new IllegalStateException("PDF 已关闭");
+        }
+        float cellWidth = (pageWidth - margin * 2) / columns;
+        float cellHeight = (pageHeight - margin * 2) / rows;
+        int col = labelIndex % columns;
+        int row = labelIndex / columns;
+        return new float[]{
+                margin + col * cellWidth + PADDING,
+                pageHeight - margin - (row + 1) * cellHeight + PADDING,
+                cellWidth - PADDING * 2,
+                cellHeight - PADDING * 2
+        };
+    }
+
+    private void finishLabel() throws IOException {
+        labelIndex++;
+        if (labelIndex == columns * rows) {
+            flushPage();
+        }
+    }
+
+    /**
+     * 压缩并写出当前页的内容流和页面对象
+     */
+    private void flushPage() throws IOException {
+        int contentId = nextId++;
+        int pageId = nextId++;
+
+        beginObject(contentId);
+        byte[] compressed = deflate(content.toByteArray());
+        emit("<< /Length " + compressed.length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(compressed);
+        emit("\nendstream\n");
+        endObject();
+
+        beginObject(pageId);
+        emit("<< /Type /Page /Parent " + PAGES_ID + " 0 R /MediaBox [0 0 " + format(pageWidth) + " "
+                + format(pageHeight) + "] /Resources << /Font << /F1 " + FONT_ID + " 0 R >> >> /Contents "
+                + contentId + " 0 R >>\n");
+        endObject();
+
+        if (pageCount == pageIds.length) {
+            pageIds = Arrays.copyOf(pageIds, pageCount * 2);
+        }
+        pageIds[pageCount++] = pageId;
+        labelIndex = 0;
+        content.reset();
+        out.flush();
+    }
+
+    private byte[] deflate(byte[] data) {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, n);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void beginObject(int id) throws IOException {
+        if (id >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, id + 1));
+        }
+        offsets[id] = out.count;
+        emit(id + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        emit("endobj\n");
+    }
+
+    /**
+     * 追加当前页内容流
+     */
+    private PdfLabelWriter write(String s) {
+        content.write(s.getBytes(StandardCharsets.ISO_8859_1), 0, s.length());
+        return this;
+    }
+
+    private PdfLabelWriter num(float value) {
+        return write(format(value));
+    }
+
+    /**
+     * 直接写出到文件
+     */
+    private void emit(String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * 数值最多保留3位小数，整数不带小数点
+     */
+    private static String format(float value) {
+        long scaled = Math.round(value * 1000);
+        if (scaled % 1000 == 0) {
+            return Long.toString(scaled / 1000);
+        }
+        return Float.toString(scaled / 1000f);
+    }
+
+    /**
+     * 写入 PDF 字符串内容，转义括号和反斜杠，非 ASCII 字符替换为 '?'
+     */
+    private void writeText(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (char c : text.toCharArray()) {
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c >= 0x20 && c < 0x7f) {
+                sb.append(c);
+            } else {
+                sb.append('?');
+            }
+        }
+        write(sb.toString());
+    }
+
+    /**
+     * 记录已写出字节数的输出流，用于交叉引用表偏移
+     */
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream out;
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
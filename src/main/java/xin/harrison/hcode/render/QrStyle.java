@@ -0,0 +1,170 @@
+package xin.harrison.hcode.render;
+
+import java.awt.*;
+import java.util.Objects;
+
+/**
+ * 二维码样式：数据模块形状、定位图案形状和颜色
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class QrStyle {
+
+    /**
+     * 默认样式，与 QrCode.generate 输出一致
+     */
+    public static final QrStyle PLAIN = new QrStyle(ModuleShape.SQUARE, FinderShape.SQUARE,
+            Color.BLACK, Color.BLACK, Color.WHITE);
+
+    /**
+     * 数据模块形状
+     */
+    public enum ModuleShape {
+        /**
+         * 方块
+         */
+        SQUARE,
+        /**
+         * 圆角，相邻模块之间连成一体，只有外露的角变圆
+         */
+        ROUNDED,
+        /**
+         * 圆点，每个模块独立
+         */
+        DOT
+    }
+
+    /**
+     * 定位图案形状
+     */
+    public enum FinderShape {
+        SQUARE,
+        ROUNDED,
+        CIRCLE
+    }
+
+    private final ModuleShape moduleShape;
+    private final FinderShape finderShape;
+    private final Color foreground;
+    private final Color finderColor;
+    private final Color background;
+
+    public QrStyle(ModuleShape moduleShape, FinderShape finderShape, Color foreground, Color finderColor,
+                   Color background) {
+        this.moduleShape = Objects.requireNonNull(moduleShape);
+        this.finderShape = Objects.requireNonNull(finderShape);
+        this.foreground = Objects.requireNonNull(foreground);
+        this.finderColor = Objects.requireNonNull(finderColor);
+        this.background = Objects.requireNonNull(background);
+    }
+
+    /**
+     * 按请求参数解析样式，未指定的项使用默认值
+     *
+     * @param module      数据模块形状
+     * @param finder      定位图案形状
+     * @param color       前景色，十六进制 RRGGBB
+     * @param finderColor 定位图案颜色，为空时与前景色相同
+     * @param background  背景色
+     * @return 样式
+     * @throws IllegalArgumentException 形状或颜色无法识别
+     */
+    public static QrStyle of(String module, String finder, String color, String finderColor, String background) {
+        Color foreground = parseColor(color, Color.BLACK);
+        return new QrStyle(parseEnum(ModuleShape.class, module, ModuleShape.SQUARE),
+                parseEnum(FinderShape.class, finder, FinderShape.SQUARE),
+                foreground,
+                parseColor(finderColor, foreground),
+                parseColor(background, Color.WHITE));
+    }
+
+    public ModuleShape getModuleShape() {
+        return moduleShape;
+    }
+
+    public FinderShape getFinderShape() {
+        return finderShape;
+    }
+
+    public Color getForeground() {
+        return foreground;
+    }
+
+    public Color getFinderColor() {
+        return finderColor;
+    }
+
+    public Color getBackground() {
+        return background;
+    }
+
+    /**
+     * 是否与默认样式相同
+     */
+    public boolean isPlain() {
+        return equals(PLAIN);
+    }
+
+    /**
+     * 用于缓存键和 ETag 的紧凑描述
+     */
+    public String key() {
+        return moduleShape + "-" + finderShape + "-" + hex(foreground) + "-" + hex(finderColor) + "-" + hex(background);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QrStyle other)) {
+            return false;
+        }
+        return moduleShape == other.moduleShape && finderShape == other.finderShape
+                && foreground.getRGB() == other.foreground.getRGB()
+                && finderColor.getRGB() == other.finderColor.getRGB()
+                && background.getRGB() == other.background.getRGB();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(moduleShape, finderShape, foreground.getRGB(), finderColor.getRGB(), background.getRGB());
+    }
+
+    @Override
+    public String toString() {
+        return key();
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, E defaultValue) {
+        if (name == null || name.isBlank()) {
+            return defaultValue;
+        }
+        for (E value : type.getEnumConstants()) {
+            if (value.name().equalsIgnoreCase(name.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("不支持的样式: " + name);
+    }
+
+    private static Color parseColor(String value, Color defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        String hex = value.trim();
+        if (hex.startsWith("#")) {
+            hex = hex.substring(1);
+        }
+        if (!hex.matches("[0-9a-fA-F]{6}")) {
+            throw new IllegalArgumentException("颜色格式应为 RRGGBB: " + value);
+        }
+        return new Color(Integer.parseInt(hex, 16));
+    }
+
+    private static String hex(Color color) {
+        return String.format("%06x", color.getRGB() & 0xFFFFFF);
+    }
+}
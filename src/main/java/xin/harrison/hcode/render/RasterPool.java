@@ -0,0 +1,248 @@
+package xin.harrison.hcode.render;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import xin.harrison.hcode.config.RenderProperties;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.Cleaner;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 位图缓冲池
+ * <p>
+ * 按 (宽, 高, 类型) 复用渲染用的 BufferedImage，常用尺寸的请求不再每次分配几百 KB 的像素数组。
+ * 空闲列表按线程分条，减少并发归还和借出时的锁竞争；每条每种尺寸最多保留
+ * {@value #MAX_PER_KEY} 个。所有空闲位图的总字节数超过配置的上限时，按时钟指针轮流从各条中
+ * 淘汰最久未用尺寸的位图，偶发的一次性尺寸不会长期占住上限，常用尺寸始终可以回到池中。
+ * <p>
+ * 借出的位图内容未定义，渲染器须自行填充整个背景。借出凭证被回收时仍未归还视为泄漏，
+ * 记录警告；DEBUG 级别下同时记录借出位置。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Component
+public class RasterPool {
+
+    private static final Logger log = LoggerFactory.getLogger(RasterPool.class);
+
+    // 每条空闲列表中同一尺寸最多保留的个数
+    private static final int MAX_PER_KEY = 4;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Stripe[] stripes;
+    private final long maxBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    // 淘汰时的时钟指针
+    private final AtomicInteger hand = new AtomicInteger();
+
+    public RasterPool(RenderProperties properties) {
+        this.maxBytes = properties.getRasterPoolSize().toBytes();
+        // 条数取不小于 2 倍处理器数的 2 的幂
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 借出位图，配合 try-with-resources 使用
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @param type   BufferedImage 类型
+     * @return 借出凭证，关闭时归还
+     */
+    public Lease borrow(int width, int height, int type) {
+        Key key = new Key(width, height, type);
+        BufferedImage image = maxBytes > 0 ? stripe().poll(key) : null;
+        if (image != null) {
+            pooledBytes.addAndGet(-bytes(image));
+        } else {
+            image = new BufferedImage(width, height, type);
+        }
+        return new Lease(this, key, image);
+    }
+
+    /**
+     * @return 当前空闲位图占用的字节数
+     */
+    public long pooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * @return 累计检测到的未归还次数
+     */
+    public long leaks() {
+        return leaks.get();
+    }
+
+    private void release(Key key, BufferedImage image) {
+        long size = bytes(image);
+        if (size > maxBytes || !stripe().offer(key, image)) {
+            return;
+        }
+        if (pooledBytes.addAndGet(size) > maxBytes) {
+            trim();
+        }
+    }
+
+    /**
+     * 轮流从各条淘汰最久未用尺寸的位图，直到回到上限以内；连续一整圈都没有可淘汰的即停止
+     */
+    private void trim() {
+        int idle = 0;
+        while (pooledBytes.get() > maxBytes && idle < stripes.length) {
+            BufferedImage evicted = stripes[hand.getAndIncrement() & (stripes.length - 1)].evictEldest();
+            if (evicted == null) {
+                idle++;
+            } else {
+                idle = 0;
+                pooledBytes.addAndGet(-bytes(evicted));
+            }
+        }
+    }
+
+    private Stripe stripe() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) (id ^ (id >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static long bytes(BufferedImage image) {
+        return RenderBudget.estimate(image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * 借出凭证，关闭后不得再使用其中的位图
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final RasterPool pool;
+        private final Key key;
+        private final BufferedImage image;
+        private final LeakState state;
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(RasterPool pool, Key key, BufferedImage image) {
+            this.pool = pool;
+            this.key = key;
+            this.image = image;
+            this.state = new LeakState(pool.leaks, key, log.isDebugEnabled() ? new Throwable("借出位置") : null);
+            this.cleanable = CLEANER.register(this, state);
+        }
+
+        public BufferedImage image() {
+            return image;
+        }
+
+        @Override
+        public void close() {
+            if (state.released.compareAndSet(false, true)) {
+                cleanable.clean();
+                pool.release(key, image);
+            }
+        }
+    }
+
+    /**
+     * 泄漏检测状态，不能引用 Lease 本身，否则凭证永远不会被回收
+     */
+    private static final class LeakState implements Runnable {
+
+        final AtomicBoolean released = new AtomicBoolean();
+        final AtomicLong leaks;
+        final Key key;
+        final Throwable borrowedAt;
+
+        LeakState(AtomicLong leaks, Key key, Throwable borrowedAt) {
+            this.leaks = leaks;
+            this.key = key;
+            this.borrowedAt = borrowedAt;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                leaks.incrementAndGet();
+                log.warn("位图缓冲 {}x{} 未归还即被回收", key.width, key.height, borrowedAt);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        final int width;
+        final int height;
+        final int type;
+
+        Key(int width, int height, int type) {
+            this.width = width;
+            this.height = height;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.width == width && k.height == height && k.type == type;
+        }
+
+        @Override
+        public int hashCode() {
+            return (width * 31 + height) * 31 + type;
+        }
+    }
+
+    private static final class Stripe {
+
+        // 访问顺序，最前面是最久未借出或归还的尺寸
+        private final Map<Key, ArrayDeque<BufferedImage>> free = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized BufferedImage poll(Key key) {
+            ArrayDeque<BufferedImage> images = free.get(key);
+            if (images == null) {
+                return null;
+            }
+            BufferedImage image = images.pollLast();
+            // 尺寸可任意指定，空列表及时移除，避免键无限增长
+            if (images.isEmpty()) {
+                free.remove(key);
+            }
+            return image;
+        }
+
+        synchronized boolean offer(Key key, BufferedImage image) {
+            ArrayDeque<BufferedImage> images = free.computeIfAbsent(key, k -> new ArrayDeque<>(MAX_PER_KEY));
+            if (images.size() >= MAX_PER_KEY) {
+                return false;
+            }
+            images.addLast(image);
+            return true;
+        }
+
+        synchronized BufferedImage evictEldest() {
+            Iterator<ArrayDeque<BufferedImage>> it = free.values().iterator();
+            if (!it.hasNext()) {
+                return null;
+            }
+            ArrayDeque<BufferedImage> images = it.next();
+            BufferedImage image = images.pollFirst();
+            if (images.isEmpty()) {
+                it.remove();
+            }
+            return image;
+        }
+    }
+}
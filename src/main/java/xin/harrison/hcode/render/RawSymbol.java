@@ -0,0 +1,183 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.BitArray;
+import xin.harrison.hcode.core.BitMatrix;
+import xin.harrison.hcode.core.QrCode;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * 未栅格化的编码结果，供客户端自行绘制
+ * <p>
+ * 二进制格式（多字节整数均为大端）：
+ * <pre>
+ * 二维码：'Q' 格式版本(1) 版本号(1) 纠错级别(1, L/M/Q/H=0-3) 掩码(1) 边长(1) 行数据
+ *        行数据共 边长 行，每行 (边长 + 7) / 8 字节，高位在前，1 为深色
+ * 条码：  'B' 格式版本(1) 标志(1, bit0=EAN-13) 模块数(2) 游程数(2) 游程长度
+ *        游程从条开始条空交替，每个长度为无符号 LEB128 变长整数
+ * </pre>
+ * JSON 格式字段与二进制一致，行数据为 Base64 字符串。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class RawSymbol {
+
+    /**
+     * 二进制格式版本
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private RawSymbol() {
+    }
+
+    /**
+     * 编码二维码
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return 模块矩阵
+     */
+    public static QrMatrix qrCode(String content, QrCode.ErrorCorrectionLevel ecLevel) {
+        int version = QrCode.version(content, ecLevel);
+        BitMatrix matrix = QrCode.encode(content, ecLevel);
+        int size = matrix.getWidth();
+        int rowBytes = MonoBitmap.bytesPerRow(size);
+        byte[] rows = new byte[rowBytes * size];
+        for (int y = 0; y < size; y++) {
+            System.arraycopy(matrix.rowBytes(y), 0, rows, y * rowBytes, rowBytes);
+        }
+        return new QrMatrix(version, ecLevel, size, rowBytes, rows);
+    }
+
+    /**
+     * 编码条码
+     *
+     * @param content 条码内容
+     * @return 条空游程
+     */
+    public static BarRuns barcode(String content) {
+        BitArray bars = Barcode.encode(content);
+        // 模块序列总是以条开始
+        int[] runs = new int[bars.size()];
+        int count = 0;
+        for (int i = 0; i < bars.size(); ) {
+            int run = bars.runLength(i);
+            runs[count++] = run;
+            i += run;
+        }
+        return new BarRuns(Barcode.isEAN13(content), bars.size(), Arrays.copyOf(runs, count));
+    }
+
+    /**
+     * 二维码模块矩阵
+     */
+    public static final class QrMatrix {
+
+        private final int version;
+        private final QrCode.ErrorCorrectionLevel ecLevel;
+        private final int size;
+        private final int rowBytes;
+        private final byte[] rows;
+
+        QrMatrix(int version, QrCode.ErrorCorrectionLevel ecLevel, int size, int rowBytes, byte[] rows) {
+            this.version = version;
+            this.ecLevel = ecLevel;
+            this.size = size;
+            this.rowBytes = rowBytes;
+            this.rows = rows;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public QrCode.ErrorCorrectionLevel getEcLevel() {
+            return ecLevel;
+        }
+
+        public int getMask() {
+            return QrCode.MASK;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getRowBytes() {
+            return rowBytes;
+        }
+
+        public byte[] getRows() {
+            return rows;
+        }
+
+        /**
+         * @return 二进制格式
+         */
+        public byte[] toBinary() {
+            byte[] bytes = new byte[6 + rows.length];
+            bytes[0] = 'Q';
+            bytes[1] = FORMAT_VERSION;
+            bytes[2] = (byte) version;
+            bytes[3] = (byte) ecLevel.ordinal();
+            bytes[4] = (byte) QrCode.MASK;
+            bytes[5] = (byte) size;
+            System.arraycopy(rows, 0, bytes, 6, rows.length);
+            return bytes;
+        }
+    }
+
+    /**
+     * 条码条空游程
+     */
+    public static final class BarRuns {
+
+        private final boolean ean13;
+        private final int modules;
+        private final int[] runs;
+
+        BarRuns(boolean ean13, int modules, int[] runs) {
+            this.ean13 = ean13;
+            this.modules = modules;
+            this.runs = runs;
+        }
+
+        public boolean isEan13() {
+            return ean13;
+        }
+
+        public int getModules() {
+            return modules;
+        }
+
+        public int[] getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return 二进制格式
+         */
+        public byte[] toBinary() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(7 + runs.length);
+            out.write('B');
+            out.write(FORMAT_VERSION);
+            out.write(ean13 ? 1 : 0);
+            out.write(modules >>> 8);
+            out.write(modules);
+            out.write(runs.length >>> 8);
+            out.write(runs.length);
+            for (int run : runs) {
+                while (run >= 0x80) {
+                    out.write(run & 0x7F | 0x80);
+                    run >>>= 7;
+                }
+                out.write(run);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package xin.harrison.hcode.render;
+
+import org.springframework.stereotype.Component;
+import xin.harrison.hcode.config.RenderProperties;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 渲染内存预算 - 按预估位图大小加权的信号量
+ * <p>
+ * 每次渲染前按位图字节数申请许可，所有并发渲染占用的位图内存之和不超过配置的预算。
+ * 许可以 KB 为单位，单个请求超过整个预算时直接拒绝。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Component
+public class RenderBudget {
+
+    // TYPE_INT_RGB 每像素字节数
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final Semaphore semaphore;
+    private final int totalPermits;
+    private final long timeoutMillis;
+
+    public RenderBudget(RenderProperties properties) {
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, properties.getMemoryBudget().toKilobytes());
+        this.semaphore = new Semaphore(totalPermits, true);
+        this.timeoutMillis = properties.getAcquireTimeout().toMillis();
+    }
+
+    /**
+     * 预估位图占用的字节数
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @return 字节数
+     */
+    public static long estimate(int width, int height) {
+        return (long) width * height * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * 申请渲染内存，配合 try-with-resources 使用
+     *
+     * @param bytes 预估字节数
+     * @return 许可，关闭时归还
+     * @throws IllegalArgumentException 单个请求超过总预算
+     * @throws ExhaustedException       等待超时
+     */
+    public Permit acquire(long bytes) {
+        long kilobytes = Math.max(1, (bytes + 1023) / 1024);
+        if (kilobytes > totalPermits) {
+            throw new IllegalArgumentException("请求的图片过大");
+        }
+        int permits = (int) kilobytes;
+        try {
+            if (!semaphore.tryAcquire(permits, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ExhaustedException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExhaustedException();
+        }
+        return () -> semaphore.release(permits);
+    }
+
+    /**
+     * 当前可用的预算（字节）
+     *
+     * @return 字节数
+     */
+    public long available() {
+        return semaphore.availablePermits() * 1024L;
+    }
+
+    /**
+     * 渲染许可
+     * <p>
+     * 只在 try-with-resources 中持有，try 块内不会引用，javac 的 -Xlint:try 会因此告警；
+     * 持有即是用途，使用处以 {@code @SuppressWarnings("try")} 标注。
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 内存预算不足
+     */
+    public static class ExhaustedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public ExhaustedException() {
+            super("服务繁忙，请稍后重试");
+        }
+    }
+}
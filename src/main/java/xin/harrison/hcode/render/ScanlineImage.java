@@ -0,0 +1,172 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.BitArray;
+import xin.harrison.hcode.core.BitMatrix;
+
+import java.util.Arrays;
+
+/**
+ * 按扫描行生成的 1 位单色图像，整幅图像不驻留内存
+ * <p>
+ * 每行按字节打包，高位在前，1 表示深色。模块放大后同一模块行内的像素行完全相同，
+ * 实现只缓存当前模块行，内存占用与图片宽度成正比。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public abstract class ScanlineImage {
+
+    // 二维码四周留白的模块数
+    static final int QR_QUIET_ZONE = 4;
+
+    // 条码左右留白的模块数
+    static final int BAR_QUIET_ZONE = 10;
+
+    protected final int width;
+    protected final int height;
+
+    ScanlineImage(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 二维码图像，模块按整数倍放大后居中，四周至少 4 个模块留白
+     *
+     * @param matrix 模块矩阵
+     * @param size   图片边长
+     * @return 扫描行图像
+     * @throws IllegalArgumentException 边长不足以容纳每模块 1 像素
+     */
+    public static ScanlineImage qrCode(BitMatrix matrix, int size) {
+        int modules = matrix.getWidth() + QR_QUIET_ZONE * 2;
+        if (size < modules) {
+            throw new IllegalArgumentException("图片尺寸不能小于二维码模块数: " + modules);
+        }
+        return new QrScanlines(matrix, size, size / modules);
+    }
+
+    /**
+     * 条码图像，条宽按整数倍放大后居中，不含下方文字
+     *
+     * @param bars   条码模块序列
+     * @param width  图片宽度
+     * @param height 图片高度
+     * @return 扫描行图像
+     * @throws IllegalArgumentException 宽度不足以容纳每模块 1 像素
+     */
+    public static ScanlineImage barcode(BitArray bars, int width, int height) {
+        int modules = bars.size() + BAR_QUIET_ZONE * 2;
+        if (width < modules) {
+            throw new IllegalArgumentException("图片宽度不能小于条码模块数: " + modules);
+        }
+        return new BarScanlines(bars, width, height, width / modules);
+    }
+
+    /**
+     * 流式写出时的内存工作集估算，与图片尺寸无关
+     *
+     * @return 字节数
+     */
+    public static long workingSetBytes() {
+        return StripeDeflater.workingSetBytes();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return 每行打包后的字节数
+     */
+    public int bytesPerRow() {
+        return MonoBitmap.bytesPerRow(width);
+    }
+
+    /**
+     * 生成一行像素，按 y 递增顺序调用时每个模块行只打包一次；实例不是线程安全的
+     *
+     * @param y      行号
+     * @param dst    输出数组
+     * @param offset 写入起始位置，之后 bytesPerRow() 个字节被覆盖
+     */
+    public abstract void row(int y, byte[] dst, int offset);
+
+    /**
+     * 将一个模块序列按倍数放大并平移后打包为一行
+     */
+    private static void pack(byte[] row, int left, int scale, BitMatrix matrix, int y) {
+        for (int x = 0; x < matrix.getWidth(); x++) {
+            if (matrix.get(x, y)) {
+                fill(row, left + x * scale, scale);
+            }
+        }
+    }
+
+    private static void fill(byte[] row, int from, int count) {
+        for (int x = from; x < from + count; x++) {
+            row[x >>> 3] |= (byte) (0x80 >>> (x & 7));
+        }
+    }
+
+    private static final class QrScanlines extends ScanlineImage {
+
+        private final BitMatrix matrix;
+        private final int moduleSize;
+        private final int offset;
+        private final byte[] current;
+        private int currentModuleRow = -1;
+
+        QrScanlines(BitMatrix matrix, int size, int moduleSize) {
+            super(size, size);
+            this.matrix = matrix;
+            this.moduleSize = moduleSize;
+            this.offset = (size - matrix.getWidth() * moduleSize) / 2;
+            this.current = new byte[bytesPerRow()];
+        }
+
+        @Override
+        public void row(int y, byte[] dst, int dstOffset) {
+            int moduleRow = Math.floorDiv(y - offset, moduleSize);
+            if (moduleRow < 0 || moduleRow >= matrix.getHeight()) {
+                Arrays.fill(dst, dstOffset, dstOffset + current.length, (byte) 0);
+                return;
+            }
+            if (moduleRow != currentModuleRow) {
+                Arrays.fill(current, (byte) 0);
+                pack(current, offset, moduleSize, matrix, moduleRow);
+                currentModuleRow = moduleRow;
+            }
+            System.arraycopy(current, 0, dst, dstOffset, current.length);
+        }
+    }
+
+    private static final class BarScanlines extends ScanlineImage {
+
+        private final byte[] bars;
+
+        BarScanlines(BitArray modules, int width, int height, int moduleWidth) {
+            super(width, height);
+            // 所有行相同，只打包一次
+            this.bars = new byte[bytesPerRow()];
+            int left = (width - modules.size() * moduleWidth) / 2;
+            for (int i = 0; i < modules.size(); ) {
+                int run = modules.runLength(i);
+                if (modules.get(i)) {
+                    fill(bars, left + i * moduleWidth, run * moduleWidth);
+                }
+                i += run;
+            }
+        }
+
+        @Override
+        public void row(int y, byte[] dst, int offset) {
+            System.arraycopy(bars, 0, dst, offset, bars.length);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package xin.harrison.hcode.render;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 流式 PNG 输出，适用于海报尺寸的二维码和条码
+ * <p>
+ * 输出 1 位调色板 PNG（0 白、1 黑）。扫描行按条生成后交给 {@link StripeDeflater} 并行压缩，
+ * 每条压缩结果写成一个 IDAT 块；当前线程只负责生成扫描行、计算 Adler-32 和按顺序写出。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class StreamingPngWriter {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    // zlib 头：deflate，32K 窗口，默认压缩级别
+    private static final byte[] ZLIB_HEADER = {0x78, (byte) 0x9C};
+
+    private StreamingPngWriter() {
+    }
+
+    /**
+     * 写出 PNG
+     *
+     * @param image 扫描行图像
+     * @param os    输出流，不会被关闭
+     * @throws IOException 写出失败
+     */
+    public static void write(ScanlineImage image, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.write(SIGNATURE);
+
+        // IHDR：宽、高、位深1、颜色类型3（调色板）、压缩0、过滤0、不隔行
+        byte[] header = new byte[13];
+        putInt(header, 0, image.getWidth());
+        putInt(header, 4, image.getHeight());
+        header[8] = 1;
+        header[9] = 3;
+        writeChunk(out, "IHDR", header);
+        writeChunk(out, "PLTE", new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0});
+
+        // 每行前有一个过滤类型字节，全部使用 None
+        int rowLength = image.bytesPerRow() + 1;
+        int rowsPerStripe = Math.max(1, StripeDeflater.STRIPE_BYTES / rowLength);
+        Adler32 adler = new Adler32();
+        StripeDeflater deflater = new StripeDeflater(Deflater.DEFAULT_COMPRESSION, false,
+                compressed -> writeChunk(out, "IDAT", compressed));
+        try {
+            writeChunk(out, "IDAT", ZLIB_HEADER);
+            for (int y = 0; y < image.getHeight(); ) {
+                int rows = Math.min(rowsPerStripe, image.getHeight() - y);
+                byte[] stripe = new byte[rows * rowLength];
+                for (int i = 0; i < rows; i++, y++) {
+                    image.row(y, stripe, i * rowLength + 1);
+                }
+                adler.update(stripe);
+                deflater.submit(stripe, stripe.length, y == image.getHeight());
+            }
+            deflater.finish();
+        } catch (IOException | RuntimeException e) {
+            deflater.cancel();
+            throw e;
+        }
+
+        byte[] checksum = new byte[4];
+        putInt(checksum, 0, (int) adler.getValue());
+        writeChunk(out, "IDAT", checksum);
+        writeChunk(out, "IEND", new byte[0]);
+        out.flush();
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
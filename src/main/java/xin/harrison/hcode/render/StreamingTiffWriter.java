@@ -0,0 +1,121 @@
+package xin.harrison.hcode.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * 流式 TIFF 输出，适用于海报尺寸的二维码和条码
+ * <p>
+ * 输出 1 位黑白 TIFF（WhiteIsZero，1 为黑），每条独立 Deflate 压缩。
+ * 扫描行生成和压缩与 {@link StreamingPngWriter} 相同，只是原始像素不驻留内存；
+ * TIFF 目录需要每条的偏移和长度，压缩结果先保存在内存中，全部完成后一次写出。
+ * 黑白模块图案压缩率很高，万像素级别的二维码压缩后通常只有几百 KB。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class StreamingTiffWriter {
+
+    // 头部 8 字节，目录紧随其后
+    private static final int HEADER_SIZE = 8;
+
+    // 目录项数
+    private static final int ENTRY_COUNT = 11;
+
+    private static final short TYPE_SHORT = 3;
+    private static final short TYPE_LONG = 4;
+    private static final short TYPE_RATIONAL = 5;
+
+    private StreamingTiffWriter() {
+    }
+
+    /**
+     * 写出 TIFF
+     *
+     * @param image 扫描行图像
+     * @param os    输出流，不会被关闭
+     * @throws IOException 写出失败
+     */
+    public static void write(ScanlineImage image, OutputStream os) throws IOException {
+        int rowLength = image.bytesPerRow();
+        int rowsPerStrip = Math.max(1, StripeDeflater.STRIPE_BYTES / rowLength);
+        List<byte[]> strips = new ArrayList<>();
+        StripeDeflater deflater = new StripeDeflater(Deflater.DEFAULT_COMPRESSION, true, strips::add);
+        try {
+            for (int y = 0; y < image.getHeight(); ) {
+                int rows = Math.min(rowsPerStrip, image.getHeight() - y);
+                byte[] strip = new byte[rows * rowLength];
+                for (int i = 0; i < rows; i++, y++) {
+                    image.row(y, strip, i * rowLength);
+                }
+                deflater.submit(strip, strip.length, y == image.getHeight());
+            }
+            deflater.finish();
+        } catch (IOException | RuntimeException e) {
+            deflater.cancel();
+            throw e;
+        }
+
+        // 布局：头部、目录、条偏移数组、条长度数组、分辨率、各条数据
+        int count = strips.size();
+        int ifdSize = 2 + ENTRY_COUNT * 12 + 4;
+        int offsetsAt = HEADER_SIZE + ifdSize;
+        int countsAt = offsetsAt + count * 4;
+        int resolutionAt = countsAt + count * 4;
+        int dataAt = resolutionAt + 8;
+
+        ByteBuffer head = ByteBuffer.allocate(dataAt).order(ByteOrder.LITTLE_ENDIAN);
+        head.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(HEADER_SIZE);
+
+        head.putShort((short) ENTRY_COUNT);
+        entry(head, 256, TYPE_LONG, 1, image.getWidth());
+        entry(head, 257, TYPE_LONG, 1, image.getHeight());
+        // BitsPerSample 1
+        entry(head, 258, TYPE_SHORT, 1, 1);
+        // Compression 8：Adobe Deflate
+        entry(head, 259, TYPE_SHORT, 1, 8);
+        // PhotometricInterpretation 0：WhiteIsZero
+        entry(head, 262, TYPE_SHORT, 1, 0);
+        // 只有一条时数组直接放在目录项中
+        entry(head, 273, TYPE_LONG, count, count == 1 ? dataAt : offsetsAt);
+        entry(head, 278, TYPE_LONG, 1, rowsPerStrip);
+        entry(head, 279, TYPE_LONG, count, count == 1 ? strips.get(0).length : countsAt);
+        entry(head, 282, TYPE_RATIONAL, 1, resolutionAt);
+        entry(head, 283, TYPE_RATIONAL, 1, resolutionAt);
+        // ResolutionUnit 2：英寸
+        entry(head, 296, TYPE_SHORT, 1, 2);
+        head.putInt(0);
+
+        int offset = dataAt;
+        for (byte[] strip : strips) {
+            head.putInt(offset);
+            offset += strip.length;
+        }
+        for (byte[] strip : strips) {
+            head.putInt(strip.length);
+        }
+        // 72 dpi
+        head.putInt(72).putInt(1);
+
+        os.write(head.array());
+        for (byte[] strip : strips) {
+            os.write(strip);
+        }
+        os.flush();
+    }
+
+    private static void entry(ByteBuffer buffer, int tag, short type, int count, int value) {
+        buffer.putShort((short) tag).putShort(type).putInt(count);
+        if (type == TYPE_SHORT && count == 1) {
+            buffer.putShort((short) value).putShort((short) 0);
+        } else {
+            buffer.putInt(value);
+        }
+    }
+}
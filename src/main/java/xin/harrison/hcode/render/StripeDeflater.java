@@ -0,0 +1,141 @@
+package xin.harrison.hcode.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+
+/**
+ * 分条并行压缩
+ * <p>
+ * 调用方按顺序提交原始数据条，每条在公共线程池中独立压缩，结果按提交顺序交给输出端。
+ * 在途条数有上限，超过时等待最早的一条完成并写出，内存占用与条大小成正比、与图片高度无关。
+ * <ul>
+ *     <li>连续模式：各条为同一个 raw deflate 流的片段，非最后一条以 SYNC_FLUSH 对齐到字节边界，
+ *     首尾的 zlib 头和 Adler-32 由调用方写出（PNG IDAT）</li>
+ *     <li>独立模式：每条是完整的 zlib 流（TIFF 分条）</li>
+ * </ul>
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class StripeDeflater {
+
+    /**
+     * 每条原始数据的目标字节数
+     */
+    static final int STRIPE_BYTES = 256 * 1024;
+
+    /**
+     * 在途条数上限
+     */
+    static final int MAX_IN_FLIGHT = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+
+    /**
+     * 压缩结果的输出端，按提交顺序调用
+     */
+    interface Sink {
+        void accept(byte[] compressed) throws IOException;
+    }
+
+    private final int level;
+    private final boolean independent;
+    private final Sink sink;
+    private final ArrayDeque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+
+    /**
+     * @param level       压缩级别
+     * @param independent 是否每条输出完整 zlib 流
+     * @param sink        输出端
+     */
+    StripeDeflater(int level, boolean independent, Sink sink) {
+        this.level = level;
+        this.independent = independent;
+        this.sink = sink;
+    }
+
+    /**
+     * 工作集估算：在途的原始条加压缩缓冲
+     *
+     * @return 字节数
+     */
+    static long workingSetBytes() {
+        return (long) STRIPE_BYTES * (MAX_IN_FLIGHT + 1) * 2;
+    }
+
+    /**
+     * 提交一条原始数据，调用后不得再修改 data
+     *
+     * @param data   原始数据
+     * @param length 有效长度
+     * @param last   是否最后一条（连续模式下结束 deflate 流）
+     * @throws IOException 输出失败
+     */
+    void submit(byte[] data, int length, boolean last) throws IOException {
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+            drainOne();
+        }
+        inFlight.add(CompletableFuture.supplyAsync(() -> compress(data, length, last || independent)));
+    }
+
+    /**
+     * 等待全部在途数据压缩完成并写出
+     *
+     * @throws IOException 输出失败
+     */
+    void finish() throws IOException {
+        while (!inFlight.isEmpty()) {
+            drainOne();
+        }
+    }
+
+    /**
+     * 放弃在途数据，写出出错时调用
+     */
+    void cancel() {
+        inFlight.forEach(future -> future.cancel(false));
+        inFlight.clear();
+    }
+
+    private void drainOne() throws IOException {
+        byte[] compressed;
+        try {
+            compressed = inFlight.removeFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("压缩被中断", e);
+        } catch (ExecutionException e) {
+            throw new IOException("压缩失败", e.getCause());
+        }
+        sink.accept(compressed);
+    }
+
+    private byte[] compress(byte[] data, int length, boolean finish) {
+        Deflater deflater = new Deflater(level, !independent);
+        try {
+            deflater.setInput(data, 0, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, length / 16));
+            byte[] buffer = new byte[64 * 1024];
+            if (finish) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // SYNC_FLUSH 写满缓冲时可能还有剩余输出，需继续调用
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.BitMatrix;
+
+import java.awt.*;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 带样式的二维码渲染
+ * <p>
+ * 每个深色模块按上下左右四个相邻模块的组合（16 种）选取预先栅格化的精灵图，
+ * 三个定位图案使用预先渲染好的整块图块，逐行复制到图片像素数组中。
+ * 精灵图和图块按（模块尺寸，样式）缓存，抗锯齿只在生成缓存时执行一次，
+ * 渲染耗时与普通方块输出基本相同。缓存按总字节数做 LRU 淘汰；模块尺寸超过
+ * {@value #MAX_CACHED_MODULE_SIZE} 像素时精灵图每次现画、不进缓存，避免任意尺寸和颜色的请求占住堆内存。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public final class StyledQrRenderer {
+
+    // 相邻模块位，组合成精灵图下标
+    private static final int UP = 1;
+    private static final int RIGHT = 2;
+    private static final int DOWN = 4;
+    private static final int LEFT = 8;
+
+    // 16 种数据模块精灵图 + 7x7 模块的定位图块，以模块面积计
+    private static final int SPRITE_AREA = 16 + 7 * 7;
+
+    // 缓存的精灵图总字节数上限
+    private static final long MAX_CACHE_BYTES = 32L * 1024 * 1024;
+
+    // 可缓存的最大模块尺寸，一组约 260 KB
+    private static final int MAX_CACHED_MODULE_SIZE = 32;
+
+    // 访问顺序的 LinkedHashMap 实现 LRU，读写都在 CACHE 上同步
+    private static final LinkedHashMap<String, Sprites> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static long cachedBytes;
+
+    private StyledQrRenderer() {
+    }
+
+    /**
+     * 按样式渲染模块矩阵
+     *
+     * @param matrix 模块矩阵，1 表示深色模块
+     * @param width  图片宽度
+     * @param height 图片高度
+     * @param style  样式
+     * @return 二维码图片
+     */
+    public static BufferedImage render(BitMatrix matrix, int width, int height, QrStyle style) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        render(matrix, style, image);
+        return image;
+    }
+
+    /**
+     * 渲染时精灵图占用的字节数上限，调用方计入渲染内存预算；命中缓存时实际不分配
+     *
+     * @param moduleCount 每边模块数
+     * @param width       图片宽度
+     * @param height      图片高度
+     * @return 字节数
+     */
+    public static long workingSetBytes(int moduleCount, int width, int height) {
+        return spriteBytes(moduleSize(moduleCount, width, height));
+    }
+
+    /**
+     * 按样式渲染到已有图片上，尺寸取图片尺寸，原有内容全部被覆盖
+     *
+     * @param matrix 模块矩阵，1 表示深色模块
+     * @param style  样式
+     * @param image  TYPE_INT_RGB 目标图片，可以是复用的缓冲
+     */
+    public static void render(BitMatrix matrix, QrStyle style, BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int moduleCount = matrix.getWidth();
+        int moduleSize = moduleSize(moduleCount, width, height);
+        Sprites sprites = sprites(moduleSize, style);
+
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, style.getBackground().getRGB());
+
+        for (int row = 0; row < moduleCount; row++) {
+            for (int col = 0; col < moduleCount; col++) {
+                if (!matrix.get(col, row) || isFinder(row, col, moduleCount)) {
+                    continue;
+                }
+                int mask = 0;
+                if (row > 0 && matrix.get(col, row - 1)) {
+                    mask |= UP;
+                }
+                if (col < moduleCount - 1 && matrix.get(col + 1, row)) {
+                    mask |= RIGHT;
+                }
+                if (row < moduleCount - 1 && matrix.get(col, row + 1)) {
+                    mask |= DOWN;
+                }
+                if (col > 0 && matrix.get(col - 1, row)) {
+                    mask |= LEFT;
+                }
+                blit(sprites.modules[mask], moduleSize, pixels, width, height,
+                        col * moduleSize, row * moduleSize);
+            }
+        }
+
+        int finderSize = 7 * moduleSize;
+        int far = (moduleCount - 7) * moduleSize;
+        blit(sprites.finder, finderSize, pixels, width, height, 0, 0);
+        blit(sprites.finder, finderSize, pixels, width, height, far, 0);
+        blit(sprites.finder, finderSize, pixels, width, height, 0, far);
+    }
+
+    /**
+     * 是否位于三个定位图案的 7x7 区域内
+     */
+    private static boolean isFinder(int row, int col, int moduleCount) {
+        boolean top = row < 7;
+        boolean left = col < 7;
+        return (top && left) || (top && col >= moduleCount - 7) || (left && row >= moduleCount - 7);
+    }
+
+    /**
+     * 按行复制方形精灵图，超出图片的部分裁掉
+     */
+    private static void blit(int[] sprite, int size, int[] pixels, int width, int height, int x, int y) {
+        int w = Math.min(size, width - x);
+        int h = Math.min(size, height - y);
+        for (int dy = 0; dy < h; dy++) {
+            System.arraycopy(sprite, dy * size, pixels, (y + dy) * width + x, w);
+        }
+    }
+
+    private static int moduleSize(int moduleCount, int width, int height) {
+        return Math.max(1, Math.min(width, height) / moduleCount);
+    }
+
+    private static long spriteBytes(int moduleSize) {
+        return RenderBudget.estimate(moduleSize, moduleSize) * SPRITE_AREA;
+    }
+
+    private static Sprites sprites(int moduleSize, QrStyle style) {
+        if (moduleSize > MAX_CACHED_MODULE_SIZE) {
+            return new Sprites(moduleSize, style);
+        }
+        String key = moduleSize + "/" + style.key();
+        synchronized (CACHE) {
+            Sprites sprites = CACHE.get(key);
+            if (sprites != null) {
+                return sprites;
+            }
+        }
+        // 锁外栅格化，并发未命中时可能重复生成，以先放入的为准
+        Sprites sprites = new Sprites(moduleSize, style);
+        long bytes = spriteBytes(moduleSize);
+        synchronized (CACHE) {
+            Sprites existing = CACHE.putIfAbsent(key, sprites);
+            if (existing != null) {
+                return existing;
+            }
+            cachedBytes += bytes;
+            Iterator<Map.Entry<String, Sprites>> it = CACHE.entrySet().iterator();
+            while (cachedBytes > MAX_CACHE_BYTES && it.hasNext()) {
+                Map.Entry<String, Sprites> eldest = it.next();
+                if (eldest.getValue() == sprites) {
+                    continue;
+                }
+                cachedBytes -= spriteBytes(eldest.getValue().size);
+                it.remove();
+            }
+        }
+        return sprites;
+    }
+
+    /**
+     * 一组（模块尺寸，样式）对应的精灵图和定位图块，像素已合成到背景色上
+     */
+    private static final class Sprites {
+
+        final int size;
+        final int[][] modules = new int[16][];
+        final int[] finder;
+
+        Sprites(int size, QrStyle style) {
+            this.size = size;
+            for (int mask = 0; mask < 16; mask++) {
+                int neighbours = mask;
+                modules[mask] = rasterize(size, style.getBackground(), style.getForeground(),
+                        g -> drawModule(g, size, style.getModuleShape(), neighbours));
+            }
+            finder = rasterize(7 * size, style.getBackground(), style.getFinderColor(),
+                    g -> drawFinder(g, size, style.getFinderShape()));
+        }
+
+        private static int[] rasterize(int size, Color background, Color color, Consumer<Graphics2D> painter) {
+            BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = tile.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            g.setColor(background);
+            g.fillRect(0, 0, size, size);
+            g.setColor(color);
+            painter.accept(g);
+            g.dispose();
+            return ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+        }
+
+        private static void drawModule(Graphics2D g, int size, QrStyle.ModuleShape shape, int mask) {
+            switch (shape) {
+                case SQUARE -> g.fillRect(0, 0, size, size);
+                case DOT -> {
+                    double inset = size * 0.05;
+                    g.fill(new Ellipse2D.Double(inset, inset, size - 2 * inset, size - 2 * inset));
+                }
+                case ROUNDED -> {
+                    g.fill(new RoundRectangle2D.Double(0, 0, size, size, size, size));
+                    // 与相邻模块相接的角补成直角，使连续模块连成一体
+                    int half = (size + 1) / 2;
+                    if ((mask & (UP | LEFT)) != 0) {
+                        g.fillRect(0, 0, half, half);
+                    }
+                    if ((mask & (UP | RIGHT)) != 0) {
+                        g.fillRect(size - half, 0, half, half);
+                    }
+                    if ((mask & (DOWN | LEFT)) != 0) {
+                        g.fillRect(0, size - half, half, half);
+                    }
+                    if ((mask & (DOWN | RIGHT)) != 0) {
+                        g.fillRect(size - half, size - half, half, half);
+                    }
+                }
+            }
+        }
+
+        private static void drawFinder(Graphics2D g, int m, QrStyle.FinderShape shape) {
+            Area ring = new Area(finderShape(shape, 0, 7 * m, 2 * m));
+            ring.subtract(new Area(finderShape(shape, m, 5 * m, m)));
+            g.fill(ring);
+            g.fill(finderShape(shape, 2 * m, 3 * m, m));
+        }
+
+        private static Shape finderShape(QrStyle.FinderShape shape, double offset, double size, double arc) {
+            return switch (shape) {
+                case SQUARE -> new Rectangle2D.Double(offset, offset, size, size);
+                case ROUNDED -> new RoundRectangle2D.Double(offset, offset, size, size, arc, arc);
+                case CIRCLE -> new Ellipse2D.Double(offset, offset, size, size);
+            };
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package xin.harrison.hcode.render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * 只含两种颜色的图片，按行打包为 1 位像素，高位在前
+ * <p>
+ * 调色板 0 为较亮的颜色，1 为较暗的颜色，条码和二维码即 0 白 1 黑。
+ * TYPE_INT_RGB 图片直接读取像素数组，不经过颜色模型转换。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+final class TwoColorRaster {
+
+    final int width;
+    final int height;
+    final int stride;
+    final byte[] bits;
+    final int[] palette;
+
+    private TwoColorRaster(int width, int height, byte[] bits, int[] palette) {
+        this.width = width;
+        this.height = height;
+        this.stride = MonoBitmap.bytesPerRow(width);
+        this.bits = bits;
+        this.palette = palette;
+    }
+
+    /**
+     * 打包图片
+     *
+     * @param image 图片
+     * @return 打包结果，颜色超过两种时返回 null
+     */
+    static TwoColorRaster of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int stride = MonoBitmap.bytesPerRow(width);
+
+        int[] data;
+        int offset;
+        int scanline;
+        WritableRaster raster = image.getRaster();
+        if (image.getType() == BufferedImage.TYPE_INT_RGB
+                && raster.getDataBuffer() instanceof DataBufferInt buffer
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel model) {
+            data = buffer.getData();
+            scanline = model.getScanlineStride();
+            offset = buffer.getOffset() - raster.getSampleModelTranslateY() * scanline
+                    - raster.getSampleModelTranslateX();
+        } else {
+            data = null;
+            offset = 0;
+            scanline = width;
+        }
+
+        // 第一种颜色对应的位先记为 0，第二种记为 1，最后按亮度决定是否整体取反
+        int first = -1;
+        int second = -1;
+        byte[] bits = new byte[stride * height];
+        int[] row = data == null ? new int[width] : null;
+        for (int y = 0; y < height; y++) {
+            int[] pixels;
+            int base;
+            if (data != null) {
+                pixels = data;
+                base = offset + y * scanline;
+            } else {
+                pixels = image.getRGB(0, y, width, 1, row, 0, width);
+                base = 0;
+            }
+            int out = y * stride;
+            for (int x = 0; x < width; x++) {
+                int rgb = pixels[base + x] & 0xFFFFFF;
+                if (rgb == first) {
+                    continue;
+                }
+                if (first < 0) {
+                    first = rgb;
+                    continue;
+                }
+                if (rgb != second) {
+                    if (second >= 0) {
+                        return null;
+                    }
+                    second = rgb;
+                }
+                bits[out + (x >>> 3)] |= (byte) (0x80 >>> (x & 7));
+            }
+        }
+
+        if (second < 0) {
+            second = first == 0 ? 0xFFFFFF : 0;
+        }
+        if (luma(first) < luma(second)) {
+            for (int y = 0; y < height; y++) {
+                invertRow(bits, y * stride, width);
+            }
+            return new TwoColorRaster(width, height, bits, new int[]{second, first});
+        }
+        return new TwoColorRaster(width, height, bits, new int[]{first, second});
+    }
+
+    /**
+     * @return 像素的调色板下标
+     */
+    int get(int x, int y) {
+        return bits[y * stride + (x >>> 3)] >>> (7 - (x & 7)) & 1;
+    }
+
+    private static void invertRow(byte[] bits, int offset, int width) {
+        int full = width >>> 3;
+        for (int i = 0; i < full; i++) {
+            bits[offset + i] = (byte) ~bits[offset + i];
+        }
+        // 末尾不足 8 位时只翻转有效位，填充位保持 0
+        int rest = width & 7;
+        if (rest != 0) {
+            bits[offset + full] ^= (byte) (0xFF << (8 - rest));
+        }
+    }
+
+    private static int luma(int rgb) {
+        return ((rgb >>> 16) & 0xFF) * 299 + ((rgb >>> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114;
+    }
+}
@@ -0,0 +1,210 @@
+package xin.harrison.hcode.render;
+
+import xin.harrison.hcode.core.Barcode;
+import xin.harrison.hcode.core.QrCode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ZPL 指令输出 - 供斑马等热敏标签打印机直接打印
+ * <p>
+ * 打印机原生支持的码制输出 ^BE / ^BC / ^BQ 指令，由打印机自行绘制；
+ * 其余情况使用 ^GF 1 位位图兜底，位图数据采用 ZPL 压缩 ASCII 格式。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class ZplEncoder {
+
+    // 标签左上角偏移（点）
+    private static final int ORIGIN = 20;
+    // 条码模块宽度（点）
+    private static final int BAR_MODULE_WIDTH = 2;
+    // 条码高度（点）
+    private static final int BAR_HEIGHT = 100;
+    // 二维码模块放大倍数（点）
+    private static final int QR_MAGNIFICATION = 4;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * 生成条码打印指令
+     * <p>
+     * 校验位正确的 EAN-13 使用 ^BE，可打印 ASCII 内容使用 Code 128 (^BC)，其余使用位图。
+     *
+     * @param content 条码内容
+     * @return ZPL 指令
+     */
+    public static byte[] barcode(String content) {
+        StringBuilder zpl = begin();
+        zpl.append("^BY").append(BAR_MODULE_WIDTH);
+        if (Barcode.isEAN13(content)) {
+            if (!Barcode.hasValidEAN13CheckDigit(content)) {
+                // 校验位错误时打印机会重新计算校验位，用位图保证与图片输出一致
+                return barcodeRaster(content);
+            }
+            // ^BE 只接收前12位，校验位由打印机计算
+            zpl.append("^BEN,").append(BAR_HEIGHT).append(",Y,N^FD").append(content, 0, 12).append("^FS");
+        } else if (isPrintableAscii(content)) {
+            zpl.append("^BCN,").append(BAR_HEIGHT).append(",Y,N,N^FH^FD");
+            appendField(zpl, content);
+            zpl.append("^FS");
+        } else {
+            return barcodeRaster(content);
+        }
+        return end(zpl);
+    }
+
+    /**
+     * 生成二维码打印指令（^BQ，模型2，纠错级别L）
+     *
+     * @param content 二维码内容
+     * @return ZPL 指令
+     */
+    public static byte[] qrCode(String content) {
+        return qrCode(content, QrCode.ErrorCorrectionLevel.L);
+    }
+
+    /**
+     * 生成指定纠错级别的二维码打印指令（^BQ，模型2）
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return ZPL 指令
+     */
+    public static byte[] qrCode(String content, QrCode.ErrorCorrectionLevel ecLevel) {
+        StringBuilder zpl = begin();
+        // ^CI28 声明 UTF-8，^FH 允许以 _XX 转义特殊字符，字段数据以 "纠错级别A," 开头
+        zpl.append("^CI28^BQN,2,").append(QR_MAGNIFICATION).append("^FH^FD").append(ecLevel.name()).append("A,");
+        appendField(zpl, content);
+        zpl.append("^FS");
+        return end(zpl);
+    }
+
+    /**
+     * 按条码模块序列生成 ^GF 位图指令
+     *
+     * @param content 条码内容
+     * @return ZPL 指令
+     */
+    public static byte[] barcodeRaster(String content) {
+        byte[] row = MonoBitmap.packRow(Barcode.encode(content), BAR_MODULE_WIDTH);
+        StringBuilder zpl = begin();
+        appendGraphic(zpl, new byte[][]{row}, BAR_HEIGHT);
+        return end(zpl);
+    }
+
+    /**
+     * 按二维码模块矩阵生成 ^GF 位图指令
+     *
+     * @param content 二维码内容
+     * @param ecLevel 纠错级别
+     * @return ZPL 指令
+     */
+    public static byte[] qrCodeRaster(String content, QrCode.ErrorCorrectionLevel ecLevel) {
+        byte[][] rows = MonoBitmap.packRows(QrCode.encode(content, ecLevel), QR_MAGNIFICATION);
+        StringBuilder zpl = begin();
+        appendGraphic(zpl, rows, QR_MAGNIFICATION);
+        return end(zpl);
+    }
+
+    /**
+     * 写出 ^GFA 指令，每个模块行纵向重复 repeat 次，重复行以 ':' 表示
+     */
+    private static void appendGraphic(StringBuilder zpl, byte[][] rows, int repeat) {
+        int bytesPerRow = rows[0].length;
+        int total = bytesPerRow * rows.length * repeat;
+        zpl.append("^GFA,").append(total).append(',').append(total).append(',').append(bytesPerRow).append(',');
+        for (byte[] row : rows) {
+            appendCompressedRow(zpl, row);
+            for (int i = 1; i < repeat; i++) {
+                zpl.append(':');
+            }
+        }
+        zpl.append("^FS");
+    }
+
+    /**
+     * ZPL 压缩 ASCII：连续相同的十六进制字符用重复计数前缀表示，行尾的0用 ',' 表示
+     */
+    private static void appendCompressedRow(StringBuilder zpl, byte[] row) {
+        char[] hex = new char[row.length * 2];
+        for (int i = 0; i < row.length; i++) {
+            hex[i * 2] = HEX[(row[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[row[i] & 0xF];
+        }
+        int end = hex.length;
+        while (end > 0 && hex[end - 1] == '0') {
+            end--;
+        }
+        int i = 0;
+        while (i < end) {
+            char c = hex[i];
+            int run = 1;
+            while (i + run < end && hex[i + run] == c) {
+                run++;
+            }
+            appendRepeatCount(zpl, run);
+            zpl.append(c);
+            i += run;
+        }
+        if (end < hex.length) {
+            zpl.append(',');
+        }
+    }
+
+    /**
+     * 重复计数：G-Y 表示1-19，g-z 表示20-400（20的倍数），可组合使用
+     */
+    private static void appendRepeatCount(StringBuilder zpl, int run) {
+        if (run == 1) {
+            return;
+        }
+        while (run >= 400) {
+            zpl.append('z');
+            run -= 400;
+            if (run == 0) {
+                return;
+            }
+        }
+        if (run >= 20) {
+            zpl.append((char) ('g' + run / 20 - 1));
+            run %= 20;
+        }
+        if (run > 0) {
+            zpl.append((char) ('G' + run - 1));
+        }
+    }
+
+    /**
+     * 写入字段数据，^ ~ _ 和非 ASCII 字节以 _XX 转义（需配合 ^FH）
+     */
+    private static void appendField(StringBuilder zpl, String content) {
+        for (byte b : content.getBytes(StandardCharsets.UTF_8)) {
+            if (b == '^' || b == '~' || b == '_' || b < 0x20) {
+                zpl.append('_').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            } else {
+                zpl.append((char) b);
+            }
+        }
+    }
+
+    private static boolean isPrintableAscii(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return !content.isEmpty();
+    }
+
+    private static StringBuilder begin() {
+        return new StringBuilder(128).append("^XA^FO").append(ORIGIN).append(',').append(ORIGIN);
+    }
+
+    private static byte[] end(StringBuilder zpl) {
+        return zpl.append("^XZ").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
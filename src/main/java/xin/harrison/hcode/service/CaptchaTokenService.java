@@ -0,0 +1,178 @@
+package xin.harrison.hcode.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import xin.harrison.hcode.config.CaptchaProperties;
+import xin.harrison.hcode.utils.ReplayFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 无状态验证码令牌
+ * <p>
+ * 令牌 = 密钥编号(1) + 过期时间(4，秒) + 随机盐(8) + 答案摘要(8) + 签名(12)，Base64URL 编码后44个字符。
+ * 答案摘要是以密钥和前三段为盐的 HMAC，令牌本身不泄露答案，也无法离线穷举；
+ * 签名覆盖前四段，签名正确即消耗令牌，无论答案对错，每个令牌只有一次作答机会。
+ * 任意节点持有同一组密钥即可校验，不需要共享存储。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Service
+public class CaptchaTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptchaTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int HEADER_LENGTH = 1 + 4 + 8;
+    private static final int ANSWER_LENGTH = 8;
+    private static final int SIGNATURE_LENGTH = 12;
+    private static final int TOKEN_LENGTH = HEADER_LENGTH + ANSWER_LENGTH + SIGNATURE_LENGTH;
+
+    private final List<SigningKey> keys = new ArrayList<>();
+    private final long ttlSeconds;
+    private final ReplayFilter replayFilter;
+    private final SecureRandom random = new SecureRandom();
+
+    public CaptchaTokenService(CaptchaProperties properties) {
+        for (String key : properties.getKeys()) {
+            keys.add(new SigningKey(Base64.getDecoder().decode(key.trim())));
+        }
+        if (keys.isEmpty()) {
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            keys.add(new SigningKey(secret));
+            log.warn("未配置 hcode.captcha.keys，使用随机密钥，其他节点无法校验本节点签发的验证码");
+        }
+        this.ttlSeconds = properties.getTtl().toSeconds();
+        this.replayFilter = new ReplayFilter(properties.getTtl().toMillis(), properties.getReplayCapacity(), 1e-6);
+    }
+
+    /**
+     * 为验证码答案签发令牌
+     *
+     * @param answer 验证码答案
+     * @return 令牌
+     */
+    public String issue(String answer) {
+        SigningKey key = keys.get(0);
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH);
+        token.put(key.id);
+        token.putInt((int) (System.currentTimeMillis() / 1000 + ttlSeconds));
+        token.putLong(random.nextLong());
+        token.put(key.answerDigest(token.array(), answer));
+        token.put(key.sign(token.array()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * 校验答案，每个令牌只能成功使用一次
+     *
+     * @param token  令牌
+     * @param answer 用户输入的答案
+     * @return 答案正确、令牌未过期且未使用过时返回 true
+     */
+    public boolean verify(String token, String answer) {
+        if (token == null || answer == null) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (bytes.length != TOKEN_LENGTH) {
+            return false;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte keyId = buffer.get();
+        long expiry = buffer.getInt() & 0xFFFFFFFFL;
+        long salt = buffer.getLong();
+        long now = System.currentTimeMillis();
+        if (expiry < now / 1000) {
+            return false;
+        }
+
+        for (SigningKey key : keys) {
+            if (key.id != keyId || !MessageDigest.isEqual(key.sign(bytes), slice(bytes, HEADER_LENGTH + ANSWER_LENGTH,
+                    SIGNATURE_LENGTH))) {
+                continue;
+            }
+            // 签名通过后先消耗令牌再比对答案，伪造的令牌不会占用过滤器
+            if (!replayFilter.firstSeen(salt ^ expiry, now)) {
+                return false;
+            }
+            return MessageDigest.isEqual(key.answerDigest(bytes, answer), slice(bytes, HEADER_LENGTH, ANSWER_LENGTH));
+        }
+        return false;
+    }
+
+    private static byte[] slice(byte[] bytes, int offset, int length) {
+        byte[] result = new byte[length];
+        System.arraycopy(bytes, offset, result, 0, length);
+        return result;
+    }
+
+    /**
+     * 签名密钥，编号取密钥 SHA-256 的首字节，轮换时无需额外配置
+     */
+    private static class SigningKey {
+        private final byte id;
+        private final Mac prototype;
+
+        SigningKey(byte[] secret) {
+            try {
+                this.id = MessageDigest.getInstance("SHA-256").digest(secret)[0];
+                this.prototype = Mac.getInstance(ALGORITHM);
+                this.prototype.init(new SecretKeySpec(secret, ALGORITHM));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 答案摘要：HMAC(头部 + 规范化答案) 截断
+         */
+        byte[] answerDigest(byte[] token, String answer) {
+            Mac mac = newMac();
+            mac.update(token, 0, HEADER_LENGTH);
+            mac.update(answer.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return slice(mac.doFinal(), 0, ANSWER_LENGTH);
+        }
+
+        /**
+         * 签名：HMAC(头部 + 答案摘要) 截断，与答案摘要以首字节区分用途
+         */
+        byte[] sign(byte[] token) {
+            Mac mac = newMac();
+            mac.update((byte) 0xFF);
+            mac.update(token, 0, HEADER_LENGTH + ANSWER_LENGTH);
+            return slice(mac.doFinal(), 0, SIGNATURE_LENGTH);
+        }
+
+        /**
+         * 复制已初始化的 Mac，避免每次重新计算密钥填充
+         */
+        private Mac newMac() {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
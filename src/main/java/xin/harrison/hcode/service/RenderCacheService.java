@@ -0,0 +1,108 @@
+package xin.harrison.hcode.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import xin.harrison.hcode.config.CacheProperties;
+import xin.harrison.hcode.utils.SegmentStore;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * 渲染结果磁盘缓存
+ * <p>
+ * 以 ETag 为键保存已编码的图片或打印机指令，命中时从映射区直接写入响应，不再渲染，也不占用堆内存。
+ * 缓存在重启后保留，重启或替换的节点挂载已有目录即可直接命中。同一目录同时只允许一个进程使用，
+ * 已被其他进程锁定或无法使用时记录警告并关闭缓存，不影响正常渲染；多实例部署应各自配置目录。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+@Service
+public class RenderCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderCacheService.class);
+
+    private final SegmentStore store;
+
+    public RenderCacheService(CacheProperties properties) {
+        SegmentStore opened = null;
+        if (properties.isEnabled()) {
+            // 整段映射为一个 MappedByteBuffer，配置错误直接启动失败，不按目录不可用处理
+            long segmentSize = properties.getSegmentSize().toBytes();
+            if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("hcode.cache.segment-size 须大于 0 且小于 2GB: "
+                        + properties.getSegmentSize());
+            }
+            Path directory = Path.of(properties.getDirectory()).toAbsolutePath();
+            try {
+                long start = System.nanoTime();
+                opened = new SegmentStore(directory, (int) segmentSize, properties.getMaxSize().toBytes());
+                log.info("磁盘缓存 {}：{} 条记录，{} 个段，加载 {} ms", directory, opened.size(),
+                        opened.segmentCount(), (System.nanoTime() - start) / 1_000_000);
+            } catch (IOException | RuntimeException e) {
+                log.warn("磁盘缓存目录 {} 不可用，已关闭缓存", directory, e);
+            }
+        }
+        this.store = opened;
+    }
+
+    /**
+     * 命中时写出缓存内容
+     *
+     * @param key      缓存键（ETag）
+     * @param response 响应
+     * @return 是否命中
+     */
+    public boolean serve(String key, HttpServletResponse response) {
+        SegmentStore.Entry entry = store != null ? store.get(key) : null;
+        if (entry == null) {
+            return false;
+        }
+        response.setContentType(entry.getContentType());
+        response.setContentLength(entry.getLength());
+        ByteBuffer buffer = entry.buffer();
+        try (OutputStream os = response.getOutputStream();
+             WritableByteChannel channel = Channels.newChannel(os)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return true;
+    }
+
+    /**
+     * 保存渲染结果，写入失败只记录日志
+     *
+     * @param key         缓存键（ETag）
+     * @param contentType 内容类型
+     * @param data        内容
+     */
+    public void put(String key, String contentType, byte[] data) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.put(key, contentType, data);
+        } catch (IOException e) {
+            log.warn("写入磁盘缓存失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package xin.harrison.hcode.utils;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * HTTP 缓存工具类
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class CacheUtil {
+
+    /**
+     * 渲染器版本，编码或绘制结果发生变化时递增，使旧的 ETag 失效
+     */
+    public static final String RENDERER_VERSION = "2";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic().immutable().getHeaderValue();
+
+    private static final String NO_STORE = CacheControl.noStore().getHeaderValue();
+
+    /**
+     * 根据规范化后的请求参数和渲染器版本计算强 ETag
+     *
+     * @param parts 规范化后的请求参数
+     * @return 带引号的 ETag
+     */
+    public static String etag(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(RENDERER_VERSION.getBytes(StandardCharsets.UTF_8));
+            for (String part : parts) {
+                // 以 0 字节分隔，避免参数拼接产生歧义
+                digest.update((byte) 0);
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            byte[] hash = digest.digest();
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 确定性输出：长期缓存且内容不会变化
+     *
+     * @param response 响应
+     */
+    public static void immutable(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+    }
+
+    /**
+     * 每次请求结果都不同的输出：禁止任何缓存
+     *
+     * @param response 响应
+     */
+    public static void noStore(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, NO_STORE);
+    }
+}
@@ -30,19 +30,29 @@ public class ImageUtil {
     }
 
     /**
-     * 将图片转为base64
+     * 将图片编码为 PNG 字节
      *
-     * @param image 图片流
-     * @return base64 字符串
-     * @throws IOException 异常
+     * @param image 图片
+     * @return PNG 数据
      */
-    public static String toBase64(BufferedImage image){
+    public static byte[] toPng(BufferedImage image) {
         try {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
             ImageIO.write(image, FormatEnum.Image.PNG.name(), out);
-            return Base64.getEncoder().encodeToString(out.toByteArray());
+            return out.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * 将图片转为base64
+     *
+     * @param image 图片流
+     * @return base64 字符串
+     * @throws IOException 异常
+     */
+    public static String toBase64(BufferedImage image){
+        return Base64.getEncoder().encodeToString(toPng(image));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package xin.harrison.hcode.utils;
+
+import java.util.Arrays;
+
+/**
+ * 按时间分代的布隆过滤器，用于拒绝重复使用的令牌
+ * <p>
+ * 保留当前和上一代两个过滤器，每代覆盖一个有效期窗口。令牌在有效期内才会被校验，
+ * 因此首次使用的记录一定落在这两代之内，过期的一代整体丢弃，内存固定。
+ * 误判只会把极少数首次使用的令牌当作重放拒绝，不会放过真正的重放。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class ReplayFilter {
+
+    private final long windowMillis;
+    private final int numBits;
+    private final int numHashes;
+
+    private long[] current;
+    private long[] previous;
+    private long currentStart;
+
+    /**
+     * @param windowMillis 每代覆盖的时间窗口（毫秒），应不小于令牌有效期
+     * @param capacity     每代预计插入的数量
+     * @param fpp          期望误判率
+     */
+    public ReplayFilter(long windowMillis, int capacity, double fpp) {
+        long bits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.windowMillis = windowMillis;
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        this.current = new long[(numBits + 63) >>> 6];
+        this.previous = new long[current.length];
+        this.currentStart = System.currentTimeMillis();
+    }
+
+    /**
+     * 检查令牌是否出现过，未出现则记录
+     *
+     * @param id  令牌唯一标识
+     * @param now 当前时间（毫秒）
+     * @return 首次出现返回 true，已出现过返回 false
+     */
+    public synchronized boolean firstSeen(long id, long now) {
+        rotate(now);
+
+        // 双重哈希：h1 + i * h2
+        long h1 = mix(id);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean seenCurrent = true;
+        boolean seenPrevious = true;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, numBits);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            seenCurrent &= (current[word] & mask) != 0;
+            seenPrevious &= (previous[word] & mask) != 0;
+            current[word] |= mask;
+        }
+        return !seenCurrent && !seenPrevious;
+    }
+
+    /**
+     * 超过窗口时当前代变为上一代，上一代清空后复用为当前代
+     */
+    private void rotate(long now) {
+        if (now - currentStart < windowMillis) {
+            return;
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0L);
+        if (now - currentStart >= windowMillis * 2) {
+            // 两个窗口内都没有请求，两代都已过期
+            Arrays.fill(current, 0L);
+        }
+        previous = current;
+        current = recycled;
+        currentStart = now;
+    }
+
+    /**
+     * 64位混淆函数（MurmurHash3 fmix64）
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
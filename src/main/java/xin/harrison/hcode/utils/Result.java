@@ -68,4 +68,20 @@ public class Result<T> {
     public static <T> Result<T> error() {
         return new Result<T>(null, "操作异常", false, 500);
     }
-}
+
+    public T getData() {
+        return data;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
\ No newline at end of file
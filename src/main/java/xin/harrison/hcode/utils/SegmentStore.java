@@ -0,0 +1,427 @@
+package xin.harrison.hcode.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.stream.Stream;
+
+/**
+ * 只追加的内存映射分段存储
+ * <p>
+ * 目录下按编号存放固定大小的段文件，整段以读写方式映射，记录直接写入映射区，读取时返回映射区切片，
+ * 不经过堆内存。记录格式：
+ * <pre>
+ * 魔数(4) CRC32(4) 键长(1) 键 类型长(1) 类型 数据长(4) 数据
+ * </pre>
+ * CRC32 覆盖键长到数据末尾。脏页落盘顺序不确定，断电或系统崩溃后魔数可能已在磁盘上而数据没有。
+ * 重启时只扫描记录头重建索引，遇到魔数不符或越界的记录即停止，其后的空间由新记录覆盖；
+ * 数据页不读入，已缓存的内容重启后立即可用。扫描得到的记录在第一次读取（或淘汰时被复制）前校验 CRC，
+ * 校验失败的记录从索引中移除，按未命中处理。本进程写入的记录无需校验。
+ * <p>
+ * 总大小超出上限时淘汰最旧的段：上一次换段之后被读取过的记录复制到当前段继续保留，
+ * 其余记录以及被同键新记录覆盖的旧记录一并丢弃。访问时间按换段次数（纪元）记录，
+ * 复制时原样带走，很久以前读过一次的记录不会因此一直留在缓存中。被覆盖记录超过一半的段也会提前整理。
+ * 映射区不主动解除，段文件删除后已取出的切片仍可读到回收为止。
+ * <p>
+ * 同一目录只允许一个进程写入：打开时对目录下的锁文件加排他锁，关闭时释放，
+ * 已被其他进程（或本进程内的另一个实例）持有时打开失败。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class SegmentStore implements Closeable {
+
+    private static final int MAGIC = 0x48435232;
+
+    // 魔数 + CRC32
+    private static final int HEADER_LENGTH = 8;
+    private static final String SUFFIX = ".seg";
+    private static final String LOCK_FILE = ".lock";
+
+    // 写入后从未读取过
+    private static final int NEVER_ACCESSED = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private Segment active;
+    // 换段次数，记录最近一次读取时的取值
+    private volatile int epoch;
+
+    /**
+     * 打开存储目录，扫描已有段文件重建索引
+     *
+     * @param directory   目录，不存在时创建
+     * @param segmentSize 单个段文件大小
+     * @param maxSize     总大小上限，至少容纳两个段
+     * @throws IOException              目录或文件无法访问，或目录已被其他写入者锁定
+     * @throws IllegalArgumentException 段大小不是正数
+     */
+    public SegmentStore(Path directory, int segmentSize, long maxSize) throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("段大小必须大于0");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.min(Integer.MAX_VALUE, Math.max(2, maxSize / segmentSize));
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel, directory);
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            unlock();
+            throw e;
+        }
+    }
+
+    private void load() throws IOException {
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentSize, idOf(file));
+            segments.add(segment);
+            segment.scan(this);
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            active = segments.get(segments.size() - 1);
+        }
+    }
+
+    /**
+     * 读取记录，同时标记为近期访问
+     *
+     * @param key 键
+     * @return 记录，不存在或校验失败时返回 null
+     */
+    public Entry get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.verify()) {
+            discard(key, entry);
+            return null;
+        }
+        entry.accessedEpoch = epoch;
+        return entry;
+    }
+
+    /**
+     * 写入记录，同键旧记录被覆盖
+     *
+     * @param key         键，UTF-8 不超过 255 字节
+     * @param contentType 内容类型，不超过 255 字节
+     * @param data        数据
+     * @return 是否写入，超过单段容量的一半时不写入
+     * @throws IOException 创建新段失败
+     */
+    public synchronized boolean put(String key, String contentType, byte[] data) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+        int length = recordLength(keyBytes, typeBytes, data.length);
+        if (keyBytes.length > 255 || typeBytes.length > 255 || length > segmentSize / 2) {
+            return false;
+        }
+        if (active.position + length > segmentSize) {
+            roll();
+        }
+        append(key, keyBytes, typeBytes, ByteBuffer.wrap(data), NEVER_ACCESSED);
+        return true;
+    }
+
+    /**
+     * @return 记录数
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return 段文件个数
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        unlock();
+    }
+
+    private static FileLock tryLock(FileChannel channel, Path directory) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("缓存目录已被其他写入者使用: " + directory);
+        }
+        return lock;
+    }
+
+    private void unlock() {
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException ignored) {
+            // 通道关闭时锁一并释放
+        }
+    }
+
+    /**
+     * 移除校验失败的记录
+     */
+    private synchronized void discard(String key, Entry entry) {
+        if (index.remove(key, entry)) {
+            entry.segment.deadBytes += entry.recordLength();
+        }
+    }
+
+    private void append(String key, byte[] keyBytes, byte[] typeBytes, ByteBuffer data, int accessedEpoch) {
+        Segment segment = active;
+        int start = segment.position;
+        int dataLength = data.remaining();
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(start + HEADER_LENGTH);
+        buffer.put((byte) keyBytes.length).put(keyBytes);
+        buffer.put((byte) typeBytes.length).put(typeBytes);
+        buffer.putInt(dataLength);
+        int dataOffset = buffer.position();
+        buffer.put(data);
+        int end = buffer.position();
+        segment.buffer.putInt(start + 4, segment.crc(start + HEADER_LENGTH, end));
+        // 最后写魔数，进程内崩溃时未写完的记录对重启扫描不可见；断电时由 CRC 兜底
+        segment.buffer.putInt(start, MAGIC);
+        segment.position = end;
+
+        Entry entry = new Entry(segment, new String(typeBytes, StandardCharsets.UTF_8), dataOffset, dataLength, start);
+        entry.accessedEpoch = accessedEpoch;
+        entry.verified = true;
+        Entry previous = index.put(key, entry);
+        if (previous != null) {
+            previous.segment.deadBytes += previous.recordLength();
+        }
+    }
+
+    /**
+     * 新建当前段，并在超出上限时淘汰最旧的段，整理被覆盖记录过多的段
+     */
+    private void roll() throws IOException {
+        int id = active == null ? 0 : active.id + 1;
+        active = Segment.open(directory.resolve(String.format("%08d%s", id, SUFFIX)), segmentSize, id);
+        segments.add(active);
+        int since = epoch;
+        epoch = since + 1;
+
+        if (segments.size() > maxSegments) {
+            evict(segments.get(0), since);
+        }
+        for (Segment segment : new ArrayList<>(segments)) {
+            if (segment != active && segment.deadBytes > segment.position / 2) {
+                evict(segment, NEVER_ACCESSED);
+            }
+        }
+    }
+
+    /**
+     * 移除一个段，保留其中纪元 since 及之后读取过的记录；since 为 NEVER_ACCESSED 时保留全部有效记录。
+     * 保留的记录带着原访问纪元复制到当前段
+     */
+    private void evict(Segment segment, int since) throws IOException {
+        Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+        List<Map.Entry<String, Entry>> survivors = new ArrayList<>();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getValue().segment == segment) {
+                if (e.getValue().accessedEpoch >= since) {
+                    survivors.add(e);
+                } else {
+                    it.remove();
+                }
+            }
+        }
+        for (Map.Entry<String, Entry> e : survivors) {
+            Entry entry = e.getValue();
+            // 复制时会重新计算 CRC，先确认原记录完好
+            if (!entry.verify()) {
+                index.remove(e.getKey(), entry);
+                continue;
+            }
+            byte[] keyBytes = e.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] typeBytes = entry.contentType.getBytes(StandardCharsets.UTF_8);
+            // 当前段写不下的记录直接丢弃
+            if (active.position + recordLength(keyBytes, typeBytes, entry.length) > segmentSize) {
+                index.remove(e.getKey(), entry);
+                continue;
+            }
+            append(e.getKey(), keyBytes, typeBytes, entry.buffer(), entry.accessedEpoch);
+        }
+        segments.remove(segment);
+        Files.deleteIfExists(segment.file);
+    }
+
+    private static int recordLength(byte[] keyBytes, byte[] typeBytes, int dataLength) {
+        return HEADER_LENGTH + 1 + keyBytes.length + 1 + typeBytes.length + 4 + dataLength;
+    }
+
+    private static int idOf(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 缓存记录
+     */
+    public static final class Entry {
+
+        private final Segment segment;
+        private final String contentType;
+        private final int offset;
+        private final int length;
+        private final int recordStart;
+        private volatile int accessedEpoch = NEVER_ACCESSED;
+        private volatile boolean verified;
+
+        Entry(Segment segment, String contentType, int offset, int length, int recordStart) {
+            this.segment = segment;
+            this.contentType = contentType;
+            this.offset = offset;
+            this.length = length;
+            this.recordStart = recordStart;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @return 数据所在映射区的只读切片
+         */
+        public ByteBuffer buffer() {
+            return segment.buffer.slice(offset, length).asReadOnlyBuffer();
+        }
+
+        int recordLength() {
+            return offset - recordStart + length;
+        }
+
+        /**
+         * 校验 CRC，结果只计算一次；并发首次读取时可能重复计算，结果相同
+         */
+        boolean verify() {
+            if (!verified) {
+                verified = segment.crc(recordStart + HEADER_LENGTH, offset + length)
+                        == segment.buffer.getInt(recordStart + 4);
+            }
+            return verified;
+        }
+    }
+
+    private static final class Segment {
+
+        final Path file;
+        final int id;
+        final MappedByteBuffer buffer;
+        int position;
+        int deadBytes;
+
+        private Segment(Path file, int id, MappedByteBuffer buffer) {
+            this.file = file;
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, int size, int id) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // 映射在通道关闭后仍然有效
+                return new Segment(file, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * 扫描记录头，把记录加入索引（尚未校验），遇到未提交或越界的记录即停止
+         */
+        void scan(SegmentStore store) {
+            int pos = 0;
+            int limit = buffer.capacity();
+            while (pos + HEADER_LENGTH + 1 + 1 + 4 <= limit && buffer.getInt(pos) == MAGIC) {
+                int p = pos + HEADER_LENGTH;
+                int keyLength = buffer.get(p) & 0xFF;
+                if (p + 1 + keyLength + 1 > limit) {
+                    break;
+                }
+                String key = string(p + 1, keyLength);
+                p += 1 + keyLength;
+                int typeLength = buffer.get(p) & 0xFF;
+                if (p + 1 + typeLength + 4 > limit) {
+                    break;
+                }
+                String type = string(p + 1, typeLength);
+                p += 1 + typeLength;
+                int dataLength = buffer.getInt(p);
+                p += 4;
+                if (dataLength < 0 || dataLength > limit - p) {
+                    break;
+                }
+                Entry previous = store.index.put(key, new Entry(this, type, p, dataLength, pos));
+                if (previous != null) {
+                    previous.segment.deadBytes += previous.recordLength();
+                }
+                pos = p + dataLength;
+            }
+            position = pos;
+        }
+
+        /**
+         * 映射区 [from, to) 的 CRC32
+         */
+        int crc(int from, int to) {
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(from, to - from));
+            return (int) crc.getValue();
+        }
+
+        private String string(int offset, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
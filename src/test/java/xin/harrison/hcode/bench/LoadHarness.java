@@ -0,0 +1,293 @@
+package xin.harrison.hcode.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import xin.harrison.hcode.HCodeApplication;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 端到端压测工具
+ * <p>
+ * 在随机端口启动 HCodeApplication，按固定到达速率（开环）请求各接口，
+ * 延迟从计划发送时间开始计算，服务端变慢导致的排队时间也计入，避免协调遗漏。
+ * 结果输出为 JSON，可在不同构建之间对比。
+ * <p>
+ * 运行：
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=xin.harrison.hcode.bench.LoadHarness \
+ *     -Dload.rate=400 -Dload.concurrency=32 -Dload.duration=60
+ * </pre>
+ * 可选参数：load.endpoints（逗号分隔，默认 qrcode,barcode,captcha,captchaImage）、
+ * load.warmup（预热秒数，默认10）、load.output（报告路径，默认 target/load-report.json）。
+ * 分配速率按 JVM 内所有线程统计，包含压测客户端自身。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+public class LoadHarness {
+
+    // 延迟直方图上限 60 秒，3 位有效数字
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final String baseUrl;
+    private final List<String> endpoints;
+    private final double rate;
+    private final int concurrency;
+    private final HttpClient client;
+
+    private final Recorder[] recorders;
+    private final LongAdder[] errors;
+    private final Histogram gcPauses = new Histogram(TimeUnit.MINUTES.toMillis(10), 3);
+    // 注册和移除须使用同一个实例，方法引用每次求值都会生成新对象
+    private final NotificationListener gcListener = this::onGcNotification;
+
+    public LoadHarness(String baseUrl, List<String> endpoints, double rate, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.endpoints = endpoints;
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.recorders = new Recorder[endpoints.size()];
+        this.errors = new LongAdder[endpoints.size()];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder(MAX_LATENCY_NANOS, 3);
+            errors[i] = new LongAdder();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> endpoints = List.of(System.getProperty("load.endpoints",
+                "qrcode,barcode,captcha,captchaImage").split(","));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        int warmup = Integer.getInteger("load.warmup", 10);
+        int duration = Integer.getInteger("load.duration", 30);
+        File output = new File(System.getProperty("load.output", "target/load-report.json"));
+
+        ConfigurableApplicationContext context = SpringApplication.run(HCodeApplication.class,
+                "--server.port=0", "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadHarness harness = new LoadHarness("http://localhost:" + port + "/", endpoints, rate, concurrency);
+
+            harness.run(warmup);
+            harness.reset();
+
+            Map<String, Object> report = harness.measure(duration);
+            report.put("timestamp", Instant.now().toString());
+            report.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+
+            output.getAbsoluteFile().getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+            System.out.println("压测报告: " + output.getAbsolutePath());
+        } finally {
+            context.close();
+            System.exit(0);
+        }
+    }
+
+    /**
+     * 正式压测并汇总结果
+     */
+    private Map<String, Object> measure(int seconds) throws InterruptedException, ListenerNotFoundException {
+        List<NotificationEmitter> emitters = listenGcPauses();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            run(seconds);
+        } finally {
+            for (NotificationEmitter emitter : emitters) {
+                emitter.removeNotificationListener(gcListener);
+            }
+        }
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("endpoints", endpoints);
+        config.put("targetRate", rate);
+        config.put("concurrency", concurrency);
+        config.put("durationSeconds", seconds);
+
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+        long totalErrors = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Histogram histogram = recorders[i].getIntervalHistogram();
+            total.add(histogram);
+            totalErrors += errors[i].sum();
+            perEndpoint.put(endpoints.get(i), summary(histogram, errors[i].sum(), elapsed));
+        }
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        synchronized (gcPauses) {
+            gc.put("count", gcPauses.getTotalCount());
+            gc.put("totalMs", (long) (gcPauses.getMean() * gcPauses.getTotalCount()));
+            gc.put("p99Ms", gcPauses.getValueAtPercentile(99));
+            gc.put("maxMs", gcPauses.getMaxValue());
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("total", summary(total, totalErrors, elapsed));
+        report.put("endpoints", perEndpoint);
+        report.put("allocationMBPerSecond", Math.round(allocated / elapsed / 1024 / 1024 * 10) / 10.0);
+        report.put("gcPauses", gc);
+        return report;
+    }
+
+    /**
+     * 开环发送：第 i 个请求的计划时间为 start + i / rate，工作线程按计划时间发送，
+     * 落后于计划时不补偿等待，延迟从计划时间算起
+     */
+    private void run(int seconds) throws InterruptedException {
+        long intervalNanos = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong sequence = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                while (true) {
+                    long i = sequence.getAndIncrement();
+                    long intended = start + i * intervalNanos;
+                    if (intended >= end) {
+                        return;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    send((int) (i % endpoints.size()), i, intended);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 120L, TimeUnit.SECONDS);
+    }
+
+    private void send(int endpoint, long i, long intended) {
+        String path = endpoints.get(endpoint);
+        // 内容取模循环，既覆盖编码开销，又不会每次都是同一内容
+        String query = switch (path) {
+            case "qrcode" -> "?content=https://example.com/item/" + (i % 1000);
+            case "barcode" -> "?content=" + String.format("690%010d", i % 1000);
+            default -> "";
+        };
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path + query))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                errors[endpoint].increment();
+            }
+        } catch (Exception e) {
+            errors[endpoint].increment();
+        }
+        recorders[endpoint].recordValue(Math.min(System.nanoTime() - intended, MAX_LATENCY_NANOS));
+    }
+
+    private void reset() {
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i].reset();
+            errors[i].reset();
+        }
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughput", Math.round(histogram.getTotalCount() / elapsedSeconds * 10) / 10.0);
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e4) / 100.0;
+    }
+
+    /**
+     * JVM 内所有存活线程累计分配的字节数
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 通过 GC 通知记录每次停顿时长，并发收集阶段不计入
+     */
+    private List<NotificationEmitter> listenGcPauses() {
+        List<NotificationEmitter> emitters = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        return emitters;
+    }
+
+    private void onGcNotification(javax.management.Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (info.getGcName().contains("Concurrent") || info.getGcCause().contains("concurrent")) {
+            return;
+        }
+        synchronized (gcPauses) {
+            gcPauses.recordValue(info.getGcInfo().getDuration());
+        }
+    }
+}
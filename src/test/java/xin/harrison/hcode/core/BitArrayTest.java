@@ -0,0 +1,92 @@
+package xin.harrison.hcode.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+class BitArrayTest {
+
+    @Test
+    void appendBitsWritesHighBitFirst() {
+        BitArray bits = new BitArray();
+        bits.appendBits(0b0100, 4);
+        bits.appendBits(0b101, 3);
+
+        assertThat(bits.size()).isEqualTo(7);
+        assertThat(bitString(bits)).isEqualTo("0100101");
+    }
+
+    @Test
+    void appendBitsAcrossWordBoundary() {
+        BitArray bits = new BitArray(1);
+        bits.appendRun(false, 60);
+        bits.appendBits(0xABCD, 16);
+
+        assertThat(bits.size()).isEqualTo(76);
+        assertThat(bitString(bits).substring(60)).isEqualTo("1010101111001101");
+    }
+
+    @Test
+    void appendBitsAcceptsFullInt() {
+        BitArray bits = new BitArray();
+        bits.appendBits(0x80000001, 32);
+        bits.appendBits(0, 0);
+
+        assertThat(bits.size()).isEqualTo(32);
+        assertThat(bits.toBytes()).containsExactly(0x80, 0x00, 0x00, 0x01);
+    }
+
+    @Test
+    void appendBitsRejectsValueWiderThanCount() {
+        BitArray bits = new BitArray();
+
+        assertThatThrownBy(() -> bits.appendBits(0b100, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bits.appendBits(1, 33)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bits.size()).isZero();
+    }
+
+    @Test
+    void toBytesPadsLastByteWithZeros() {
+        BitArray bits = new BitArray();
+        bits.appendBytes(new byte[]{(byte) 0xA5, 0x3C});
+        bits.appendBits(0b11, 2);
+
+        assertThat(bits.toBytes()).containsExactly(0xA5, 0x3C, 0xC0);
+    }
+
+    @Test
+    void appendRunAndRunLength() {
+        BitArray bits = new BitArray();
+        bits.appendRun(true, 3);
+        bits.appendRun(false, 130);
+        bits.appendRun(true, 70);
+
+        assertThat(bits.size()).isEqualTo(203);
+        assertThat(bits.cardinality()).isEqualTo(73);
+        assertThat(bits.runLength(0)).isEqualTo(3);
+        assertThat(bits.runLength(3)).isEqualTo(130);
+        assertThat(bits.runLength(133)).isEqualTo(70);
+    }
+
+    @Test
+    void getOutsideSizeThrows() {
+        BitArray bits = new BitArray();
+        bits.appendBit(true);
+
+        assertThatThrownBy(() -> bits.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static String bitString(BitArray bits) {
+        StringBuilder sb = new StringBuilder(bits.size());
+        for (int i = 0; i < bits.size(); i++) {
+            sb.append(bits.get(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package xin.harrison.hcode.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+class BitMatrixTest {
+
+    @Test
+    void rowBytesPutsLeftmostColumnInHighBit() {
+        BitMatrix matrix = new BitMatrix(10, 2);
+        matrix.set(0, 1);
+        matrix.set(7, 1);
+        matrix.set(8, 1);
+
+        assertThat(matrix.rowBytes(0)).containsExactly(0x00, 0x00);
+        assertThat(matrix.rowBytes(1)).containsExactly(0x81, 0x80);
+    }
+
+    @Test
+    void rowBytesAcrossWordBoundary() {
+        BitMatrix matrix = new BitMatrix(70, 1);
+        matrix.set(63, 0);
+        matrix.set(64, 0);
+        matrix.set(69, 0);
+
+        byte[] bytes = matrix.rowBytes(0);
+        assertThat(bytes).hasSize(9);
+        assertThat(bytes[7]).isEqualTo((byte) 0x01);
+        assertThat(bytes[8]).isEqualTo((byte) 0x84);
+    }
+
+    @Test
+    void xorWithoutExclude() {
+        BitMatrix matrix = new BitMatrix(3);
+        matrix.set(0, 0);
+        matrix.set(1, 1);
+        BitMatrix pattern = new BitMatrix(3);
+        pattern.set(0, 0);
+        pattern.set(2, 2);
+
+        matrix.xor(pattern, null);
+
+        assertThat(matrix.get(0, 0)).isFalse();
+        assertThat(matrix.get(1, 1)).isTrue();
+        assertThat(matrix.get(2, 2)).isTrue();
+        assertThat(matrix.cardinality()).isEqualTo(2);
+    }
+
+    @Test
+    void xorSkipsExcludedBits() {
+        BitMatrix matrix = new BitMatrix(100, 2);
+        BitMatrix pattern = new BitMatrix(100, 2);
+        pattern.setRegion(0, 0, 100, 2);
+        BitMatrix exclude = new BitMatrix(100, 2);
+        exclude.setRegion(60, 0, 10, 1);
+
+        matrix.xor(pattern, exclude);
+
+        assertThat(matrix.cardinality()).isEqualTo(190);
+        assertThat(matrix.get(59, 0)).isTrue();
+        assertThat(matrix.get(60, 0)).isFalse();
+        assertThat(matrix.get(69, 0)).isFalse();
+        assertThat(matrix.get(70, 0)).isTrue();
+        assertThat(matrix.rowCardinality(1)).isEqualTo(100);
+    }
+
+    @Test
+    void xorRejectsDifferentSize() {
+        BitMatrix matrix = new BitMatrix(3);
+
+        assertThatThrownBy(() -> matrix.xor(new BitMatrix(4), null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> matrix.xor(new BitMatrix(3), new BitMatrix(3, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setRowClearsBitsBeyondWidth() {
+        BitMatrix matrix = new BitMatrix(5, 1);
+
+        matrix.setRow(0, new long[]{-1L});
+
+        assertThat(matrix.rowCardinality(0)).isEqualTo(5);
+        assertThat(matrix.rowBytes(0)).containsExactly(0xF8);
+    }
+
+    @Test
+    void copyIsIndependent() {
+        BitMatrix matrix = new BitMatrix(4);
+        matrix.set(1, 2);
+        BitMatrix copy = matrix.copy();
+
+        copy.flip(1, 2);
+
+        assertThat(matrix.get(1, 2)).isTrue();
+        assertThat(copy.get(1, 2)).isFalse();
+    }
+}
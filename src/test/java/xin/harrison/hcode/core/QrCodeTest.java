@@ -0,0 +1,73 @@
+package xin.harrison.hcode.core;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 二维码编码黄金向量测试
+ * <p>
+ * src/test/resources/qrcode 下的模块矩阵由 ZXing 3.5.3 的 Encoder 生成（字节模式，指定版本，掩码固定为 0），
+ * '#' 为深色模块。覆盖单块（版本 1）、首个带版本信息（版本 7）、长短块混合（版本 10）和最大版本（40），
+ * 纠错码表、交织、格式和版本信息、校正图案位置任何一处出错都会导致矩阵不一致。
+ *
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+class QrCodeTest {
+
+    @ParameterizedTest(name = "版本 {0}-{1}，{2} 字节")
+    @CsvSource({
+            "1, M, 5",
+            "1, H, 5",
+            "7, M, 110",
+            "10, Q, 140",
+            "40, H, 1250",
+            "40, L, 2900"
+    })
+    void matchesGoldenMatrix(int version, String ec, int length) throws IOException {
+        String content = content(length);
+        QrCode.ErrorCorrectionLevel ecLevel = QrCode.ErrorCorrectionLevel.valueOf(ec);
+
+        assertThat(QrCode.version(content, ecLevel)).isEqualTo(version);
+        BitMatrix matrix = QrCode.encode(content, ecLevel);
+        assertThat(matrix.getWidth()).isEqualTo(QrCode.moduleCount(version));
+        assertThat(toText(matrix)).isEqualTo(golden("v" + version + "-" + ec + "-" + length + ".txt"));
+    }
+
+    /**
+     * 小写 ASCII，ZXing 和本编码器都选择字节模式且不加 ECI
+     */
+    private static String content(int length) {
+        String pattern = "the quick brown fox jumps over the lazy dog ";
+        StringBuilder sb = new StringBuilder(length + pattern.length());
+        while (sb.length() < length) {
+            sb.append(pattern);
+        }
+        return sb.substring(0, length);
+    }
+
+    private static String toText(BitMatrix matrix) {
+        StringBuilder sb = new StringBuilder(matrix.getHeight() * (matrix.getWidth() + 1));
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            for (int x = 0; x < matrix.getWidth(); x++) {
+                sb.append(matrix.get(x, y) ? '#' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String golden(String name) throws IOException {
+        try (InputStream in = QrCodeTest.class.getResourceAsStream("/qrcode/" + name)) {
+            assertThat(in).as(name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+}
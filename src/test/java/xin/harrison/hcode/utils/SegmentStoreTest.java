@@ -0,0 +1,98 @@
+package xin.harrison.hcode.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Harrison
+ * @version 1.0.0
+ * @since 2026/10/19
+ */
+class SegmentStoreTest {
+
+    // 每段约可容纳 3 条 300 字节的记录，最多保留 2 段
+    private static final int SEGMENT_SIZE = 1024;
+    private static final long MAX_SIZE = 2048;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordReadBeforeLastRollIsEvicted() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            store.put("hot", "image/png", data(1));
+            assertThat(store.get("hot")).isNotNull();
+            // 写满第 0、1 段，第三次换段时淘汰第 0 段
+            fill(store, "a", 6);
+
+            assertThat(store.get("hot")).isNull();
+        }
+    }
+
+    @Test
+    void recordReadSinceLastRollSurvivesEviction() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            store.put("hot", "image/png", data(1));
+            fill(store, "a", 4);
+            assertThat(store.get("hot")).isNotNull();
+            fill(store, "b", 2);
+
+            SegmentStore.Entry entry = store.get("hot");
+            assertThat(entry).isNotNull();
+            assertThat(entry.buffer()).isEqualTo(ByteBuffer.wrap(data(1)));
+        }
+    }
+
+    @Test
+    void reopenRestoresIndex() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            store.put("k", "image/gif", data(7));
+        }
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            SegmentStore.Entry entry = store.get("k");
+            assertThat(entry).isNotNull();
+            assertThat(entry.getContentType()).isEqualTo("image/gif");
+            assertThat(entry.buffer()).isEqualTo(ByteBuffer.wrap(data(7)));
+        }
+    }
+
+    @Test
+    void corruptedRecordIsDroppedOnFirstRead() throws IOException {
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            store.put("a", "image/png", data(1));
+            store.put("b", "image/png", data(2));
+        }
+        // 模拟断电：第一条记录的数据页未落盘
+        try (FileChannel channel = FileChannel.open(directory.resolve("00000000.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[16]), 100);
+        }
+        try (SegmentStore store = new SegmentStore(directory, SEGMENT_SIZE, MAX_SIZE)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get("a")).isNull();
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get("b").buffer()).isEqualTo(ByteBuffer.wrap(data(2)));
+        }
+    }
+
+    private static void fill(SegmentStore store, String prefix, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            store.put(prefix + i, "image/png", data(i));
+        }
+    }
+
+    private static byte[] data(int seed) {
+        byte[] data = new byte[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (seed * 31 + i);
+        }
+        return data;
+    }
+}